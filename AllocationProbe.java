@@ -0,0 +1,107 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+
+// plays the game headless on autopilot and reports how many bytes each
+// tick and each frame (one tick plus one render) allocate once things have warmed up.
+// frames are measured inside the first wave of one fresh game after another, past the
+// first few frames of it, so what starting a wave costs (the whole board drawn again,
+// the wave banner) doesn't hide a few bytes a frame creeping back into normal play.
+// what's left is the score text being remade when it changes and the start message
+// drawn after a lost life
+//
+// ./gradlew check runs it and fails when either budget is exceeded, or by hand:
+//
+//   java -Djava.awt.headless=true AllocationProbe [frames] [max bytes per tick] [max bytes per frame]
+public class AllocationProbe {
+    private static final int WARMUP_FRAMES = 20000;
+    private static final int WAVE_START_FRAMES = 60;   // left out at the start of each wave
+    private static final AutopilotController AUTOPILOT = new AutopilotController(true, null);
+
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+        double maxBytesPerTick = args.length > 1 ? Double.parseDouble(args[1]) : 16;
+        double maxBytesPerFrame = args.length > 2 ? Double.parseDouble(args[2]) : 64;
+
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            System.out.println("this jvm can't measure allocations per thread");
+            return;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        BrickBreakerGame game = new BrickBreakerGame();
+        GamePlayScreen screen = (GamePlayScreen)game.getScreen("game");
+        screen.setSize(600, 600);
+        screen.resetGame();
+
+        BufferedImage frame = new BufferedImage(600, 600, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = frame.createGraphics();
+
+        runFrames(screen, g, WARMUP_FRAMES);
+        runFrames(screen, null, WARMUP_FRAMES);
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        runFrames(screen, null, frames);
+        double perTick = (double)(threads.getThreadAllocatedBytes(threadId) - before) / frames;
+
+        double perFrame = (double)waveFrameBytes(threads, screen, g, frames) / frames;
+        g.dispose();
+
+        GameSimulation simulation = screen.getSimulation();
+        System.out.println("finished on wave " + simulation.getCurrentWave() + " with " + simulation.getScore() + " points");
+        System.out.println(String.format("%d ticks: %.2f bytes per tick", frames, perTick));
+        System.out.println(String.format("%d frames: %.2f bytes per frame", frames, perFrame));
+        boolean ok = true;
+        if (perTick > maxBytesPerTick) {
+            System.out.println("FAIL: more than " + maxBytesPerTick + " bytes per tick");
+            ok = false;
+        }
+        if (perFrame > maxBytesPerFrame) {
+            System.out.println("FAIL: more than " + maxBytesPerFrame + " bytes per frame");
+            ok = false;
+        }
+        if (ok) {
+            System.out.println("ok");
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    // bytes allocated drawing frames inside the first wave of fresh games, not counting
+    // the reset or the first frames of each
+    private static long waveFrameBytes(com.sun.management.ThreadMXBean threads, GamePlayScreen screen,
+                                       Graphics g, int frames) {
+        GameSimulation simulation = screen.getSimulation();
+        long threadId = Thread.currentThread().getId();
+        long bytes = 0;
+        int drawn = 0;
+        while (drawn < frames) {
+            screen.resetGame();
+            runFrames(screen, g, WAVE_START_FRAMES);
+            long before = threads.getThreadAllocatedBytes(threadId);
+            while (drawn < frames && !simulation.isGameOver() && simulation.getCurrentWave() == 1) {
+                simulation.tick(AUTOPILOT);
+                screen.renderFrame(g, 1.0);
+                drawn++;
+            }
+            bytes += threads.getThreadAllocatedBytes(threadId) - before;
+        }
+        return bytes;
+    }
+
+    // with no graphics only the simulation runs
+    private static void runFrames(GamePlayScreen screen, Graphics g, int frames) {
+        GameSimulation simulation = screen.getSimulation();
+        for (int i = 0; i < frames; i++) {
+            if (simulation.isGameOver()) {
+                screen.resetGame();
+            }
+            simulation.tick(AUTOPILOT);
+            if (g != null) {
+                screen.renderFrame(g, 1.0);
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.util.ArrayList;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+// an animated gif decoded up front into compatible images, played by whoever shows it instead
+// of by the toolkit's own animation thread. the dialogue gifs are a full first frame followed by
+// small patches (the text typing itself out), so only the patches are kept and they are drawn
+// onto one canvas as the animation moves along. like most browsers a gif without a loop count
+// plays once and stays on its last frame
+public class AnimatedPicture {
+    private final String filename;
+    private final int width, height;
+    private final BufferedImage[] frames;
+    private final int[] frameX, frameY;
+    private final int[] delayMillis;
+    private final String[] disposal;
+
+    // playback state
+    private BufferedImage canvas;
+    private BufferedImage previous;     // what a restoreToPrevious frame drew over
+    private int shown = -1;             // the last frame drawn onto the canvas
+    private long shownUntil;            // when the next frame is due, in millis since restart
+    private Rectangle changed = new Rectangle();
+
+    private AnimatedPicture(String filename, int width, int height, ArrayList<BufferedImage> frames,
+                            ArrayList<int[]> placement, ArrayList<String> disposal) {
+        this.filename = filename;
+        this.width = width;
+        this.height = height;
+        int count = frames.size();
+        this.frames = frames.toArray(new BufferedImage[count]);
+        this.frameX = new int[count];
+        this.frameY = new int[count];
+        this.delayMillis = new int[count];
+        this.disposal = disposal.toArray(new String[count]);
+        for (int i = 0; i < count; i++) {
+            frameX[i] = placement.get(i)[0];
+            frameY[i] = placement.get(i)[1];
+            delayMillis[i] = placement.get(i)[2];
+        }
+    }
+
+    // decodes every frame of a gif, timed as an asset load. returns null when the asset is missing
+    public static AnimatedPicture load(String filename) {
+        GameEvents.AssetLoad event = new GameEvents.AssetLoad();
+        event.begin();
+        AnimatedPicture picture = null;
+        try {
+            InputStream in = AssetArchive.get().open(filename);
+            if (in != null) {
+                picture = decode(filename, new MemoryCacheImageInputStream(in));
+            }
+        } catch (Exception e) {
+            System.out.println("error loading animation " + filename + ": " + e.getMessage());
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.file = filename;
+            event.kind = "animation";
+            event.found = picture != null;
+            event.commit();
+        }
+        return picture;
+    }
+
+    private static AnimatedPicture decode(String filename, ImageInputStream in) throws Exception {
+        ImageReader reader = ImageIO.getImageReaders(in).next();
+        try {
+            reader.setInput(in, false, false);
+            int width = reader.getWidth(0);
+            int height = reader.getHeight(0);
+
+            ArrayList<BufferedImage> frames = new ArrayList<>();
+            ArrayList<int[]> placement = new ArrayList<>();
+            ArrayList<String> disposal = new ArrayList<>();
+            for (int i = 0; ; i++) {
+                BufferedImage frame;
+                try {
+                    frame = reader.read(i);
+                } catch (IndexOutOfBoundsException e) {
+                    break;
+                }
+                int[] place = { 0, 0, 100 };
+                String dispose = "none";
+                Node tree = readMetadata(reader.getImageMetadata(i));
+                for (Node node = tree != null ? tree.getFirstChild() : null; node != null; node = node.getNextSibling()) {
+                    NamedNodeMap attributes = node.getAttributes();
+                    if (node.getNodeName().equals("ImageDescriptor")) {
+                        place[0] = Integer.parseInt(attributes.getNamedItem("imageLeftPosition").getNodeValue());
+                        place[1] = Integer.parseInt(attributes.getNamedItem("imageTopPosition").getNodeValue());
+                    } else if (node.getNodeName().equals("GraphicControlExtension")) {
+                        // hundredths of a second, and like browsers anything under 2 means "default"
+                        int delay = Integer.parseInt(attributes.getNamedItem("delayTime").getNodeValue());
+                        place[2] = delay < 2 ? 100 : delay * 10;
+                        dispose = attributes.getNamedItem("disposalMethod").getNodeValue();
+                    }
+                }
+                frames.add(toCompatible(frame));
+                placement.add(place);
+                disposal.add(dispose);
+            }
+            return frames.isEmpty() ? null : new AnimatedPicture(filename, width, height, frames, placement, disposal);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private static Node readMetadata(IIOMetadata metadata) {
+        if (metadata == null || !"javax_imageio_gif_image_1.0".equals(metadata.getNativeMetadataFormatName())) {
+            return null;
+        }
+        return metadata.getAsTree("javax_imageio_gif_image_1.0");
+    }
+
+    // the decoder hands back palette images, which are slow to draw
+    private static BufferedImage toCompatible(BufferedImage frame) {
+        BufferedImage image = SpriteCache.createImage(frame.getWidth(), frame.getHeight());
+        Graphics2D g = image.createGraphics();
+        g.drawImage(frame, 0, 0, null);
+        g.dispose();
+        return image;
+    }
+
+    // goes back to the first frame
+    public void restart() {
+        if (canvas == null) {
+            canvas = SpriteCache.createImage(width, height);
+        }
+        Graphics2D g = canvas.createGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        shown = -1;
+        shownUntil = 0;
+        previous = null;
+        update(0);
+    }
+
+    // draws every frame that is due by this many millis after restart onto the canvas. returns
+    // how long until the next frame is due, or -1 once the animation has finished
+    public int update(long elapsedMillis) {
+        if (canvas == null) {
+            restart();
+        }
+        changed.setBounds(0, 0, 0, 0);
+        while (shown + 1 < frames.length && elapsedMillis >= shownUntil) {
+            if (shown >= 0) {
+                dispose(shown);
+            }
+            shown++;
+            drawFrame(shown);
+            shownUntil += delayMillis[shown];
+        }
+        return shown + 1 < frames.length ? (int)Math.max(1, shownUntil - elapsedMillis) : -1;
+    }
+
+    private void drawFrame(int i) {
+        if ("restoreToPrevious".equals(disposal[i])) {
+            previous = copyOf(canvas.getSubimage(frameX[i], frameY[i], frames[i].getWidth(), frames[i].getHeight()));
+        }
+        Graphics2D g = canvas.createGraphics();
+        g.drawImage(frames[i], frameX[i], frameY[i], null);
+        g.dispose();
+        addChanged(i);
+    }
+
+    // undoes a frame the way the gif asks before the next one is drawn
+    private void dispose(int i) {
+        if ("restoreToBackgroundColor".equals(disposal[i])) {
+            Graphics2D g = canvas.createGraphics();
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(frameX[i], frameY[i], frames[i].getWidth(), frames[i].getHeight());
+            g.dispose();
+            addChanged(i);
+        } else if ("restoreToPrevious".equals(disposal[i]) && previous != null) {
+            Graphics2D g = canvas.createGraphics();
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(previous, frameX[i], frameY[i], null);
+            g.dispose();
+            previous = null;
+            addChanged(i);
+        }
+    }
+
+    private static BufferedImage copyOf(BufferedImage region) {
+        BufferedImage copy = SpriteCache.createImage(region.getWidth(), region.getHeight());
+        Graphics2D g = copy.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(region, 0, 0, null);
+        g.dispose();
+        return copy;
+    }
+
+    private void addChanged(int i) {
+        Rectangle frame = new Rectangle(frameX[i], frameY[i], frames[i].getWidth(), frames[i].getHeight());
+        if (changed.isEmpty()) {
+            changed.setBounds(frame);
+        } else {
+            changed.add(frame);
+        }
+    }
+
+    // draws the current frame stretched over the given area
+    public void draw(Graphics g, int x, int y, int drawWidth, int drawHeight) {
+        if (canvas == null) {
+            restart();
+        }
+        g.drawImage(canvas, x, y, drawWidth, drawHeight, null);
+    }
+
+    // lets go of the canvas, the frames are kept so it can be played again
+    public void stop() {
+        canvas = null;
+        previous = null;
+        shown = -1;
+    }
+
+    // about how much memory the frames and canvas take
+    public long getBytes() {
+        long bytes = canvas != null ? 4L * width * height : 0;
+        for (BufferedImage frame : frames) {
+            bytes += 4L * frame.getWidth() * frame.getHeight();
+        }
+        return bytes;
+    }
+
+    // getters
+    public String getFilename() { return filename; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getFrameCount() { return frames.length; }
+    public Rectangle getChanged() { return changed; }
+}
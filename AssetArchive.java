@@ -0,0 +1,254 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
+// every picture and sound packed into one file with an index at the front, so startup opens
+// one file instead of forty and a missing asset is just a name that isn't in the index.
+// the archive is mapped into memory once and each asset is handed out as a slice of the
+// mapping, so nothing is copied until a decoder reads it. without an archive the loose files
+// in the working directory are mapped one by one instead, which is handy while editing art.
+//
+// the archive is built from the loose files by ./gradlew packAssets (run and installDist do it
+// first), or by running this class:
+//
+//   java AssetArchive [archive=assets.bba] [asset directory=.]
+//
+// layout: int MAGIC, int VERSION, int entry count, then per entry a utf name, a utf format
+// (png, gif, wav), a long offset from the start of the file and an int length, then the data
+public class AssetArchive {
+    public static final String DEFAULT_FILE = "assets.bba";
+    private static final int MAGIC = 0x42424152;     // "BBAR"
+    private static final int VERSION = 1;
+    private static final String[] FORMATS = { "png", "gif", "wav" };
+
+    private static AssetArchive instance;
+
+    // name -> slice of the mapping, filled once when the archive is opened (or as loose files are found)
+    private final HashMap<String, ByteBuffer> assets = new HashMap<>();
+    private final HashMap<String, String> formats = new HashMap<>();
+    private final HashSet<String> missing = new HashSet<>();
+    private final boolean packed;
+
+    // the archive named by -Dbrickbreaker.assets, or the loose files when there isn't one
+    public static synchronized AssetArchive get() {
+        if (instance == null) {
+            instance = new AssetArchive(new File(System.getProperty("brickbreaker.assets", DEFAULT_FILE)));
+        }
+        return instance;
+    }
+
+    private AssetArchive(File file) {
+        boolean opened = false;
+        if (file.exists()) {
+            try {
+                readIndex(file);
+                opened = true;
+                System.out.println("loaded " + assets.size() + " assets from " + file.getName());
+            } catch (Exception e) {
+                System.out.println("error opening asset archive " + file.getName() + ": " + e.getMessage());
+                assets.clear();
+                formats.clear();
+            }
+        }
+        packed = opened;
+    }
+
+    private void readIndex(File file) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        DataInputStream in = new DataInputStream(new ByteBufferInputStream(mapped.duplicate()));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not an asset archive");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("unsupported version " + version);
+        }
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            String format = in.readUTF();
+            long offset = in.readLong();
+            int length = in.readInt();
+            if (offset < 0 || length < 0 || offset + length > mapped.capacity()) {
+                throw new IOException("bad index entry for " + name);
+            }
+            assets.put(name, mapped.slice((int)offset, length));
+            formats.put(name, format);
+        }
+    }
+
+    // the asset's bytes as a read-only buffer of its own, or null when there is no such asset.
+    // a missing asset is reported the first time it is asked for and never looked for again
+    public synchronized ByteBuffer find(String name) {
+        ByteBuffer data = assets.get(name);
+        if (data == null && !missing.contains(name)) {
+            data = packed ? null : mapLooseFile(name);
+            if (data == null) {
+                System.out.println("asset not found: " + name);
+                missing.add(name);
+            }
+        }
+        // each caller gets its own position and limit over the shared bytes
+        return data != null ? data.duplicate() : null;
+    }
+
+    public boolean exists(String name) {
+        return find(name) != null;
+    }
+
+    // a stream over the asset for decoders that want one (supports mark and reset), or null
+    public InputStream open(String name) {
+        ByteBuffer data = find(name);
+        return data != null ? new ByteBufferInputStream(data) : null;
+    }
+
+    // a copy of the asset's bytes, for apis that only take an array (e.g. Toolkit.createImage), or null
+    public byte[] readBytes(String name) {
+        ByteBuffer data = find(name);
+        if (data == null) {
+            return null;
+        }
+        byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        return bytes;
+    }
+
+    private ByteBuffer mapLooseFile(String name) {
+        File file = new File(name);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            assets.put(name, data);
+            formats.put(name, formatOf(name));
+            return data;
+        } catch (Exception e) {
+            System.out.println("error reading asset " + name + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String formatOf(String name) {
+        return name.substring(name.lastIndexOf('.') + 1).toLowerCase();
+    }
+
+    // getters
+    public boolean isPacked() { return packed; }
+    public synchronized String getFormat(String name) { return formats.get(name); }
+
+    // packs every png, gif and wav in a directory into one archive
+    public static void main(String[] args) throws IOException {
+        File output = new File(args.length > 0 ? args[0] : DEFAULT_FILE);
+        File directory = new File(args.length > 1 ? args[1] : ".");
+
+        ArrayList<File> files = new ArrayList<>();
+        File[] listed = directory.listFiles();
+        if (listed != null) {
+            Arrays.sort(listed);
+            for (File file : listed) {
+                if (file.isFile() && Arrays.asList(FORMATS).contains(formatOf(file.getName()))) {
+                    files.add(file);
+                }
+            }
+        }
+
+        // the index is the same size whatever the offsets are, so measure it with zeros first
+        long offset = writeIndex(new DataOutputStream(new ByteArrayOutputStream()), files, 0);
+        long total = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(output)))) {
+            writeIndex(out, files, offset);
+            for (File file : files) {
+                try (InputStream in = new FileInputStream(file)) {
+                    total += in.transferTo(out);
+                }
+            }
+        }
+        System.out.println("packed " + files.size() + " assets (" + total / 1024 + " KB) into " + output.getName());
+    }
+
+    // writes the header and index for files laid out one after another from dataStart,
+    // returns where the data starts when dataStart is 0 (the index's own size)
+    private static long writeIndex(DataOutputStream out, ArrayList<File> files, long dataStart) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(files.size());
+        long offset = dataStart;
+        for (File file : files) {
+            out.writeUTF(file.getName());
+            out.writeUTF(formatOf(file.getName()));
+            out.writeLong(offset);
+            out.writeInt((int)file.length());
+            offset += file.length();
+        }
+        out.flush();
+        return out.size();
+    }
+
+    // reads a buffer as a stream without copying it first
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer data;
+        private int mark;
+
+        ByteBufferInputStream(ByteBuffer data) {
+            this.data = data;
+            this.mark = data.position();
+        }
+
+        @Override
+        public int read() {
+            return data.hasRemaining() ? data.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!data.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, data.remaining());
+            data.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long count) {
+            int skipped = (int)Math.max(0, Math.min(count, data.remaining()));
+            data.position(data.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return data.remaining();
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(int limit) {
+            mark = data.position();
+        }
+
+        @Override
+        public synchronized void reset() {
+            data.position(mark);
+        }
+    }
+}
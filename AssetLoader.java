@@ -0,0 +1,78 @@
+import java.lang.management.ManagementFactory;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+import javax.swing.ImageIcon;
+
+// decodes pictures and sounds on background threads while the home screen is already up.
+// each picture is started once and handed out as a future; screens wait for theirs in
+// onActivate, by which time it has almost always finished. the loader only keeps pictures
+// softly, so once no screen holds one the gc can take it back and it is decoded again the
+// next time it is asked for. also times how long the game took to get its first frame on screen
+public class AssetLoader {
+    private final ExecutorService executor;
+    private final HashMap<String, SoftReference<CompletableFuture<ImageIcon>>> icons = new HashMap<>();
+    private final long startNanos;
+    private volatile boolean firstFrameReported;
+
+    public AssetLoader() {
+        startNanos = System.nanoTime();
+        // at least two threads so one slow decode can't hold everything else up
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "asset loader");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+    }
+
+    // starts decoding a screen picture, or returns the one already under way or done
+    public synchronized CompletableFuture<ImageIcon> icon(String filename) {
+        SoftReference<CompletableFuture<ImageIcon>> cached = icons.get(filename);
+        CompletableFuture<ImageIcon> load = cached != null ? cached.get() : null;
+        if (load == null) {
+            load = CompletableFuture.supplyAsync(() -> SpriteCache.loadIcon(filename), executor);
+            icons.put(filename, new SoftReference<>(load));
+        }
+        return load;
+    }
+
+    // runs any other loading work in the background
+    public CompletableFuture<Void> run(Runnable task) {
+        return CompletableFuture.runAsync(task, executor);
+    }
+
+    // the same for work that hands back what it loaded
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    // waits for a future from this loader, null if the load failed
+    public static <T> T await(CompletableFuture<T> future) {
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            System.out.println("error loading asset: " + e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    // called by the first screen to paint, prints the startup time once
+    public void firstFramePainted() {
+        if (firstFrameReported) {
+            return;
+        }
+        firstFrameReported = true;
+        long sinceGame = (System.nanoTime() - startNanos) / 1_000_000L;
+        long sinceLaunch = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.println("first frame after " + sinceGame + " ms (" + sinceLaunch + " ms since launch)");
+    }
+}
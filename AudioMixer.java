@@ -0,0 +1,361 @@
+import javax.sound.sampled.*;
+import java.util.Arrays;
+
+public class AudioMixer implements Runnable {
+    // every sound is converted to this format when it is loaded
+    public static final float SAMPLE_RATE = 44100f;
+    public static final int CHANNELS = 2;
+    public static final AudioFormat OUTPUT_FORMAT = new AudioFormat(SAMPLE_RATE, 16, CHANNELS, true, false);
+
+    // mixing happens in small fixed blocks so latency stays predictable (~5.8 ms per block)
+    private static final int BLOCK_FRAMES = 256;
+    private static final int LINE_BLOCKS = 4;
+
+    // fixed voice pool shared by every bus
+    private static final int MAX_VOICES = 16;
+    private static final int MAX_PENDING = 32;
+
+    // buses with their own gain
+    public static final int SFX_BUS = 0;
+    public static final int MUSIC_BUS = 1;
+    public static final int VOICE_BUS = 2;
+    private static final int BUS_COUNT = 3;
+
+    private SourceDataLine line;
+    private final boolean offline;      // no line, blocks are mixed by mixOneBlock()
+    private Thread mixThread;
+    private volatile boolean running;
+
+    // voice state, only touched by the mixing thread. a voice plays either preloaded data or a stream
+    private short[][] voiceData = new short[MAX_VOICES][];
+    private SoundStream[] voiceStream = new SoundStream[MAX_VOICES];
+    private int[] voicePosition = new int[MAX_VOICES];
+    private int[] voiceBus = new int[MAX_VOICES];
+    private boolean[] voiceLooping = new boolean[MAX_VOICES];
+    private long[] voiceStartBlock = new long[MAX_VOICES];
+    private long blockCount = 0;
+
+    // play requests waiting for the next block, guarded by pendingLock
+    private final Object pendingLock = new Object();
+    private short[][] pendingData = new short[MAX_PENDING][];
+    private SoundStream[] pendingStream = new SoundStream[MAX_PENDING];
+    private int[] pendingBus = new int[MAX_PENDING];
+    private boolean[] pendingLooping = new boolean[MAX_PENDING];
+    private int pendingCount = 0;
+    private boolean[] stopBusRequested = new boolean[BUS_COUNT];
+
+    // per-bus gain as a plain multiplier
+    private volatile float[] busGain = {1.0f, 1.0f, 1.0f};
+
+    // mixing buffers reused for every block
+    private int[] mixBuffer = new int[BLOCK_FRAMES * CHANNELS];
+    private byte[] outputBuffer = new byte[BLOCK_FRAMES * CHANNELS * 2];
+
+    // pool statistics so we can size MAX_VOICES
+    private volatile int activeVoices = 0;
+    private int peakActiveVoices = 0;
+    private int stolenVoices = 0;
+    private int droppedRequests = 0;
+    private int playRequests = 0;
+    private int streamUnderruns = 0;
+
+    public AudioMixer() {
+        this(false);
+    }
+
+    // an offline mixer never opens a line, the sound benchmark uses it to time the mixing headless
+    AudioMixer(boolean offline) {
+        this.offline = offline;
+    }
+
+    // opens the output line and starts the mixing thread
+    public void start() {
+        try {
+            line = AudioSystem.getSourceDataLine(OUTPUT_FORMAT);
+            line.open(OUTPUT_FORMAT, outputBuffer.length * LINE_BLOCKS);
+            line.start();
+        } catch (Exception e) {
+            System.out.println("error opening audio line, sound disabled: " + e.getMessage());
+            line = null;
+            return;
+        }
+
+        running = true;
+        mixThread = new Thread(this, "audio mixer");
+        mixThread.setDaemon(true);
+        mixThread.setPriority(Thread.MAX_PRIORITY);
+        mixThread.start();
+    }
+
+    // queues a sound for the next block, never blocks on the audio line
+    public void play(short[] data, int bus, boolean looping) {
+        if (data == null) {
+            return;
+        }
+        queue(data, null, bus, looping);
+    }
+
+    // queues a stream the same way, it plays until it ends or is cancelled (a looping stream
+    // loops by itself). a stream that can't be played is cancelled so its decoder stops
+    public void play(SoundStream stream, int bus) {
+        if (stream == null) {
+            return;
+        }
+        if (!queue(null, stream, bus, false)) {
+            stream.cancel();
+        }
+    }
+
+    private boolean queue(short[] data, SoundStream stream, int bus, boolean looping) {
+        if (line == null && !offline) {
+            return false;
+        }
+        synchronized (pendingLock) {
+            playRequests++;
+            if (pendingCount == MAX_PENDING) {
+                droppedRequests++;
+                return false;
+            }
+            pendingData[pendingCount] = data;
+            pendingStream[pendingCount] = stream;
+            pendingBus[pendingCount] = bus;
+            pendingLooping[pendingCount] = looping;
+            pendingCount++;
+            return true;
+        }
+    }
+
+    // stops everything playing on a bus, used to swap the background music
+    public void stopBus(int bus) {
+        synchronized (pendingLock) {
+            stopBusRequested[bus] = true;
+        }
+    }
+
+    public void setBusGain(int bus, float gain) {
+        float[] gains = busGain.clone();
+        gains[bus] = gain;
+        busGain = gains;
+    }
+
+    // same decibel scale the old FloatControl.MASTER_GAIN used
+    public void setBusVolume(int bus, float decibels) {
+        setBusGain(bus, (float)Math.pow(10.0, decibels / 20.0));
+    }
+
+    public void close() {
+        running = false;
+        if (mixThread != null) {
+            try {
+                mixThread.join(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (line != null) {
+            line.stop();
+            line.close();
+            line = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            takePendingRequests();
+            mixBlock();
+            // write blocks once the line buffer is full, which paces this thread
+            line.write(outputBuffer, 0, outputBuffer.length);
+            blockCount++;
+        }
+    }
+
+    // one block of an offline mixer, returns how many voices were playing
+    int mixOneBlock() {
+        takePendingRequests();
+        mixBlock();
+        blockCount++;
+        return activeVoices;
+    }
+
+    // longest a sound can wait between play() and reaching the speaker: up to one block in
+    // the pending queue, then a full line buffer ahead of it
+    public static double getMaxTriggerLatencyMillis() {
+        return (1 + LINE_BLOCKS) * BLOCK_FRAMES * 1000.0 / SAMPLE_RATE;
+    }
+
+    private void takePendingRequests() {
+        synchronized (pendingLock) {
+            for (int bus = 0; bus < BUS_COUNT; bus++) {
+                if (stopBusRequested[bus]) {
+                    for (int v = 0; v < MAX_VOICES; v++) {
+                        if (voiceBus[v] == bus) {
+                            stopVoice(v);
+                        }
+                    }
+                    stopBusRequested[bus] = false;
+                }
+            }
+            for (int i = 0; i < pendingCount; i++) {
+                startVoice(pendingData[i], pendingStream[i], pendingBus[i], pendingLooping[i]);
+                pendingData[i] = null;
+                pendingStream[i] = null;
+            }
+            pendingCount = 0;
+        }
+    }
+
+    private void startVoice(short[] data, SoundStream stream, int bus, boolean looping) {
+        int chosen = -1;
+        int oldest = -1;
+        for (int v = 0; v < MAX_VOICES; v++) {
+            if (voiceData[v] == null && voiceStream[v] == null) {
+                chosen = v;
+                break;
+            }
+            // never steal a looping voice or a stream, the music and dialogue should keep playing
+            if (!voiceLooping[v] && voiceStream[v] == null
+                    && (oldest < 0 || voiceStartBlock[v] < voiceStartBlock[oldest])) {
+                oldest = v;
+            }
+        }
+        if (chosen < 0) {
+            if (oldest < 0) {
+                droppedRequests++;
+                if (stream != null) {
+                    stream.cancel();
+                }
+                return;
+            }
+            chosen = oldest;
+            stolenVoices++;
+        }
+
+        voiceData[chosen] = data;
+        voiceStream[chosen] = stream;
+        voicePosition[chosen] = 0;
+        voiceBus[chosen] = bus;
+        voiceLooping[chosen] = looping;
+        voiceStartBlock[chosen] = blockCount;
+    }
+
+    private void stopVoice(int v) {
+        if (voiceStream[v] != null) {
+            voiceStream[v].cancel();
+            streamUnderruns += voiceStream[v].getUnderruns();
+            voiceStream[v] = null;
+        }
+        voiceData[v] = null;
+    }
+
+    private void mixBlock() {
+        Arrays.fill(mixBuffer, 0);
+        float[] gains = busGain;
+        int active = 0;
+
+        for (int v = 0; v < MAX_VOICES; v++) {
+            SoundStream stream = voiceStream[v];
+            if (stream != null) {
+                active++;
+                if (!stream.mixInto(mixBuffer, gains[voiceBus[v]])) {
+                    stopVoice(v);
+                }
+                continue;
+            }
+            short[] data = voiceData[v];
+            if (data == null) {
+                continue;
+            }
+            active++;
+
+            float gain = gains[voiceBus[v]];
+            int position = voicePosition[v];
+            for (int i = 0; i < mixBuffer.length; i++) {
+                if (position >= data.length) {
+                    if (!voiceLooping[v]) {
+                        break;
+                    }
+                    position = 0;
+                }
+                mixBuffer[i] += (int)(data[position++] * gain);
+            }
+
+            if (position >= data.length && !voiceLooping[v]) {
+                voiceData[v] = null;
+            } else {
+                voicePosition[v] = position;
+            }
+        }
+
+        activeVoices = active;
+        peakActiveVoices = Math.max(peakActiveVoices, active);
+
+        // clamp to 16 bit and write little-endian
+        for (int i = 0; i < mixBuffer.length; i++) {
+            int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mixBuffer[i]));
+            outputBuffer[i * 2] = (byte)sample;
+            outputBuffer[i * 2 + 1] = (byte)(sample >> 8);
+        }
+    }
+
+    // decodes a stream into interleaved 16 bit stereo at the output rate
+    public static short[] convert(AudioInputStream stream) throws java.io.IOException {
+        AudioFormat source = stream.getFormat();
+
+        // let javax.sound handle anything that isn't already 16 bit signed pcm
+        if (source.getEncoding() != AudioFormat.Encoding.PCM_SIGNED || source.getSampleSizeInBits() != 16) {
+            AudioFormat pcm = new AudioFormat(source.getSampleRate(), 16, source.getChannels(), true, false);
+            stream = AudioSystem.getAudioInputStream(pcm, stream);
+            source = pcm;
+        }
+
+        byte[] bytes = stream.readAllBytes();
+        int channels = source.getChannels();
+        int frames = bytes.length / (2 * channels);
+        boolean bigEndian = source.isBigEndian();
+
+        // pull the raw samples out, folding any channel layout into stereo
+        short[] left = new short[frames];
+        short[] right = new short[frames];
+        for (int f = 0; f < frames; f++) {
+            int offset = f * 2 * channels;
+            left[f] = readSample(bytes, offset, bigEndian);
+            right[f] = channels > 1 ? readSample(bytes, offset + 2, bigEndian) : left[f];
+        }
+
+        // linear interpolation to the output rate
+        double step = source.getSampleRate() / SAMPLE_RATE;
+        int outFrames = (int)(frames / step);
+        short[] out = new short[outFrames * CHANNELS];
+        for (int f = 0; f < outFrames; f++) {
+            double sourcePos = f * step;
+            int index = (int)sourcePos;
+            int next = Math.min(index + 1, frames - 1);
+            double frac = sourcePos - index;
+            out[f * 2] = (short)(left[index] + (left[next] - left[index]) * frac);
+            out[f * 2 + 1] = (short)(right[index] + (right[next] - right[index]) * frac);
+        }
+        return out;
+    }
+
+    private static short readSample(byte[] bytes, int offset, boolean bigEndian) {
+        if (bigEndian) {
+            return (short)((bytes[offset] << 8) | (bytes[offset + 1] & 0xff));
+        }
+        return (short)((bytes[offset + 1] << 8) | (bytes[offset] & 0xff));
+    }
+
+    // short summary of how hard the voice pool is being pushed
+    public String getSaturationReport() {
+        return "mixer voices: " + playRequests + " plays, " + stolenVoices + " stolen, " +
+               droppedRequests + " dropped, " + peakActiveVoices + "/" + MAX_VOICES + " peak active, " +
+               streamUnderruns + " stream underruns";
+    }
+
+    // getters
+    public boolean isRunning() { return running; }
+    public int getActiveVoices() { return activeVoices; }
+    public int getPeakActiveVoices() { return peakActiveVoices; }
+    public int getStolenVoices() { return stolenVoices; }
+    public int getMaxVoices() { return MAX_VOICES; }
+}
@@ -0,0 +1,157 @@
+
+// plays the game by itself so soak tests and benchmarks can run for hours without anyone
+// at the keyboard. each tick it works out where the next ball will come down, bouncing off the
+// side walls and the ceiling on the way (bricks are ignored, it just looks again next tick),
+// and moves the basket there, a little off center so the ball goes back towards the
+// nearest bricks. it can also fetch falling power-ups when there is time before the ball
+// comes back. no allocation and a few dozen flops a tick
+public class AutopilotController implements PaddleController {
+    // the widest bounce checkPaddleCollision gives, at the very edge of the basket
+    private static final double MAX_BOUNCE_ANGLE = Math.PI / 4;
+    // hit the ball no further out than this much of the half width, the edges are risky
+    private static final double MAX_AIM = 0.7;
+    // ticks to spare when deciding whether a power-up can be fetched in time
+    private static final int SPARE_TICKS = 10;
+
+    private final boolean chasePowerUps;
+    private final GameInput keyboard;   // pause still comes from the keys, may be null
+
+    // brick the ball is being sent at, picked again each time the ball starts coming down
+    private double aimX, aimY;
+    private boolean hasAim;
+    private double aimInterceptX = Double.NaN;  // intercept aimHit was worked out for
+    private double aimHit;                      // where on the basket to hit the ball, -1 to 1
+    private boolean wasFalling;
+
+    public AutopilotController(boolean chasePowerUps, GameInput keyboard) {
+        this.chasePowerUps = chasePowerUps;
+        this.keyboard = keyboard;
+    }
+
+    @Override
+    public int nextKeys(GameSimulation simulation) {
+        int keys = keyboard != null ? keyboard.poll() & GameInput.PAUSE : 0;
+        if (simulation.isGameOver() || simulation.isPaused()) {
+            return keys;
+        }
+        if (!simulation.isGameStarted()) {
+            hasAim = false;
+            return keys | GameInput.LAUNCH;
+        }
+
+        BallSet balls = simulation.getBalls();
+        Paddle paddle = simulation.getPaddle();
+        double radius = balls.getRadius();
+        double catchY = paddle.getY() - radius;
+
+        // with several balls in play it goes after whichever reaches the basket first
+        int ball = 0;
+        double ticks = Double.MAX_VALUE;
+        for (int i = 0; i < balls.getCount(); i++) {
+            double ballTicks = ticksToCatch(balls, i, catchY);
+            if (ballTicks < ticks) {
+                ball = i;
+                ticks = ballTicks;
+            }
+        }
+        double dy = balls.getDy(ball);
+        double interceptX = fold(balls.getX(ball) + balls.getDx(ball) * ticks, radius, simulation.getWidth() - radius);
+
+        boolean falling = dy > 0;
+        if (falling && !wasFalling) {
+            pickAim(simulation.getBricks(), interceptX);
+        }
+        wasFalling = falling;
+
+        // where the basket's center should be so the bounce heads for the aim
+        double halfWidth = paddle.getWidth() / 2.0;
+        double target = interceptX;
+        if (hasAim && aimY < catchY) {
+            // the intercept barely moves while the ball falls, so the angle is only worked out
+            // again when it does (written this way round so a NaN after a new aim counts as moved)
+            if (!(Math.abs(interceptX - aimInterceptX) <= 0.5)) {
+                double angle = Math.atan((aimX - interceptX) / (catchY - aimY));
+                aimHit = Math.max(-MAX_AIM, Math.min(MAX_AIM, angle / MAX_BOUNCE_ANGLE));
+                aimInterceptX = interceptX;
+            }
+            target = interceptX - aimHit * halfWidth;
+        }
+
+        double center = paddle.getX() + halfWidth;
+        int speed = Math.max(1, paddle.getSpeed());
+        if (chasePowerUps) {
+            target = powerUpTarget(simulation, center, target, ticks, speed);
+        }
+
+        if (target < center - speed / 2.0) {
+            return keys | GameInput.LEFT;
+        }
+        return target > center + speed / 2.0 ? keys | GameInput.RIGHT : keys;
+    }
+
+    // how far a ball still has to travel down (and up first, if it's rising) to reach the
+    // basket, in ticks
+    private static double ticksToCatch(BallSet balls, int i, double catchY) {
+        double radius = balls.getRadius();
+        double dy = balls.getDy(i);
+        double distance = dy > 0 ? catchY - balls.getY(i) : (balls.getY(i) - radius) + (catchY - radius);
+        return distance / Math.max(0.01, Math.abs(dy));
+    }
+
+    // the soonest falling power-up the basket can catch and still get back under the ball
+    private double powerUpTarget(GameSimulation simulation, double center, double ballTarget,
+                                 double ballTicks, int speed) {
+        PowerUpPool powerUps = simulation.getPowerUps();
+        Paddle paddle = simulation.getPaddle();
+        double best = ballTarget;
+        double soonest = Double.MAX_VALUE;
+        for (int i = 0; i < powerUps.getCount(); i++) {
+            double landTicks = (paddle.getY() - powerUps.getY(i) - PowerUpPool.SIZE) / (double)Math.max(1, powerUps.getSpeed(i));
+            if (landTicks < 0 || landTicks >= soonest) {
+                continue;
+            }
+            double x = powerUps.getX(i) + PowerUpPool.SIZE / 2.0;
+            double there = Math.abs(x - center) / speed;
+            double back = Math.abs(ballTarget - x) / speed;
+            if (there <= landTicks && landTicks + back + SPARE_TICKS <= ballTicks) {
+                best = x;
+                soonest = landTicks;
+            }
+        }
+        return best;
+    }
+
+    // the live brick in the lowest row with any bricks left, closest to where the ball comes down
+    private void pickAim(BrickGrid bricks, double interceptX) {
+        hasAim = false;
+        aimInterceptX = Double.NaN;
+        int cols = bricks.getCols();
+        double closest = Double.MAX_VALUE;
+        for (int row = bricks.getRows() - 1; row >= 0 && !hasAim; row--) {
+            int rowStart = row * cols;
+            for (int cell = bricks.nextLive(rowStart, rowStart + cols - 1); cell >= 0;
+                 cell = bricks.nextLive(cell + 1, rowStart + cols - 1)) {
+                double x = bricks.getX(cell) + bricks.getBrickWidth() / 2.0;
+                if (Math.abs(x - interceptX) < closest) {
+                    closest = Math.abs(x - interceptX);
+                    aimX = x;
+                    aimY = bricks.getY(cell) + bricks.getBrickHeight();
+                    hasAim = true;
+                }
+            }
+        }
+    }
+
+    // where a position ends up between two walls it keeps bouncing off
+    private static double fold(double x, double min, double max) {
+        double span = max - min;
+        if (span <= 0) {
+            return min;
+        }
+        double offset = (x - min) % (2 * span);
+        if (offset < 0) {
+            offset += 2 * span;
+        }
+        return min + (offset <= span ? offset : 2 * span - offset);
+    }
+}
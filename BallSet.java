@@ -0,0 +1,142 @@
+import java.awt.*;
+
+// every ball in play, stored as plain arrays up to a fixed capacity like the power-ups, so a
+// multi-ball or a stress run with hundreds of balls makes no objects per ball. the balls in
+// play are packed at the front and removing one moves the last into its slot. there is one
+// ball sitting on the paddle until the set is launched, after that every ball moves each tick
+public class BallSet {
+    public static final int DEFAULT_CAPACITY = 512;
+
+    // velocity of a ball leaving the paddle
+    private static final double LAUNCH_DX = 2;
+    private static final double LAUNCH_DY = -5;
+
+    private final int capacity;
+    private final int radius;       // every ball is the same size
+    private int count;
+    private boolean launched;       // whether the balls are moving or waiting on the paddle
+
+    // per ball state, indexed 0 to count - 1
+    private final double[] x, y;                    // center
+    private final double[] dx, dy;                  // velocity
+    private final double[] previousX, previousY;    // center at the start of the last tick
+
+    // how hard the set has been pushed since it was made
+    private int peak;
+    private long overflowed;
+
+    private SpriteCache.Sprite ballSprite;  // looked up on the first draw, see Paddle
+    private boolean spriteLooked;
+
+    public BallSet(int capacity, int radius) {
+        this.capacity = capacity;
+        this.radius = radius;
+        x = new double[capacity];
+        y = new double[capacity];
+        dx = new double[capacity];
+        dy = new double[capacity];
+        previousX = new double[capacity];
+        previousY = new double[capacity];
+    }
+
+    // back to a single ball waiting on the paddle at (px, py)
+    public void reset(int px, int py) {
+        count = 0;
+        launched = false;
+        add(px, py, LAUNCH_DX, LAUNCH_DY);
+    }
+
+    // puts another ball in play, false if there was no room for it
+    public boolean add(double px, double py, double vx, double vy) {
+        if (count == capacity) {
+            overflowed++;
+            return false;
+        }
+        x[count] = px;
+        y[count] = py;
+        dx[count] = vx;
+        dy[count] = vy;
+        previousX[count] = px;
+        previousY[count] = py;
+        count++;
+        peak = Math.max(peak, count);
+        return true;
+    }
+
+    // moves the last ball into this slot, so while looping remove from the back forwards
+    public void remove(int i) {
+        count--;
+        x[i] = x[count];
+        y[i] = y[count];
+        dx[i] = dx[count];
+        dy[i] = dy[count];
+        previousX[i] = previousX[count];
+        previousY[i] = previousY[count];
+    }
+
+    public void launch() {
+        launched = true;
+    }
+
+    // one tick of movement for one ball
+    public void move(int i) {
+        if (launched) {
+            x[i] += dx[i];
+            y[i] += dy[i];
+        }
+    }
+
+    // keeps where every ball is now, so renderers can draw between this tick and the next
+    public void rememberPositions() {
+        System.arraycopy(x, 0, previousX, 0, count);
+        System.arraycopy(y, 0, previousY, 0, count);
+    }
+
+    // whether a ball's square bounds overlap a rectangle, the same test as Rectangle.intersects
+    public boolean overlaps(int i, Rectangle area) {
+        int left = (int)(x[i] - radius);
+        int top = (int)(y[i] - radius);
+        return left < area.x + area.width && left + radius * 2 > area.x
+            && top < area.y + area.height && top + radius * 2 > area.y;
+    }
+
+    // draws every ball alpha of the way from where it was to where it is
+    public void draw(Graphics g, double alpha) {
+        if (!spriteLooked) {
+            ballSprite = SpriteCache.get().getSprite("Ball.png", radius * 2, radius * 2);
+            spriteLooked = true;
+        }
+        if (ballSprite == null) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            double drawX = previousX[i] + (x[i] - previousX[i]) * alpha;
+            double drawY = previousY[i] + (y[i] - previousY[i]) * alpha;
+            ballSprite.draw(g, (int)(drawX - radius), (int)(drawY - radius));
+        }
+    }
+
+    public void setPosition(int i, double px, double py) {
+        x[i] = px;
+        y[i] = py;
+    }
+
+    public void setVelocity(int i, double vx, double vy) {
+        dx[i] = vx;
+        dy[i] = vy;
+    }
+
+    // getters
+    public int getCount() { return count; }
+    public int getCapacity() { return capacity; }
+    public int getRadius() { return radius; }
+    public boolean isLaunched() { return launched; }
+    public double getX(int i) { return x[i]; }
+    public double getY(int i) { return y[i]; }
+    public double getDx(int i) { return dx[i]; }
+    public double getDy(int i) { return dy[i]; }
+    public double getPreviousX(int i) { return previousX[i]; }
+    public double getPreviousY(int i) { return previousY[i]; }
+    public int getPeak() { return peak; }
+    public long getOverflowed() { return overflowed; }
+}
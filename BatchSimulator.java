@@ -0,0 +1,211 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// plays lots of headless games at once with a scripted paddle and prints what happened,
+// e.g. to see how the brick mix in pickBrickForWave plays out over many waves.
+// every game has its own simulation and seed and writes only its own result slot, so
+// games share nothing and spread over every core. the seeds come from the base seed,
+// so a batch run with the same arguments gives the same numbers
+//
+//   java -Djava.awt.headless=true BatchSimulator [games=1000] [threads=cores] [base seed] [max ticks per game=216000]
+//
+// add -Dbrickbreaker.multiBall=true to play with the cherry bricks
+public class BatchSimulator {
+    // games played by one task before it stops splitting
+    private static final int GAMES_PER_TASK = 4;
+
+    // what one game ended with
+    private static class Result {
+        long seed;
+        long ticks;
+        int wave;
+        int score;
+        int ballsLost;
+        int[] fruit = new int[5];   // apples, oranges, pears, blueberries, cherries
+        int powerUpPeak;            // most power-ups falling at once
+        long powerUpOverflow;       // drops lost to a full power-up pool
+        int powerUpCapacity;
+        int ballPeak;               // most balls in play at once
+        long ballOverflow;          // balls a multi-ball couldn't fit in the set
+        int ballCapacity;
+        boolean finished;           // lost every life before running out of ticks
+    }
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long baseSeed = args.length > 2 ? Long.parseLong(args[2]) : new SplittableRandom().nextLong();
+        long maxTicks = args.length > 3 ? Long.parseLong(args[3]) : 216000; // an hour of play
+
+        // seeds are picked up front so they don't depend on which thread runs which game
+        SplittableRandom seeds = new SplittableRandom(baseSeed);
+        Result[] results = new Result[games];
+        for (int i = 0; i < games; i++) {
+            results[i] = new Result();
+            results[i].seed = seeds.nextLong();
+        }
+
+        System.out.println("playing " + games + " games on " + threads + " threads, base seed " + baseSeed);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        pool.invoke(new Games(results, 0, games, maxTicks));
+        long nanos = System.nanoTime() - start;
+        pool.shutdown();
+
+        report(results, nanos);
+    }
+
+    // splits the games in half until there are only a few left, then plays them
+    private static class Games extends RecursiveAction {
+        private final Result[] results;
+        private final int from, to;
+        private final long maxTicks;
+
+        Games(Result[] results, int from, int to, long maxTicks) {
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.maxTicks = maxTicks;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    play(results[i], maxTicks);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Games(results, from, middle, maxTicks), new Games(results, middle, to, maxTicks));
+        }
+    }
+
+    private static void play(Result result, long maxTicks) {
+        GameSimulation simulation = new GameSimulation(600, 600);
+        simulation.reset(result.seed);
+
+        while (!simulation.isGameOver() && simulation.getTickCount() < maxTicks) {
+            simulation.tick(scriptedKeys(simulation));
+        }
+
+        result.ticks = simulation.getTickCount();
+        result.wave = simulation.getCurrentWave();
+        result.score = simulation.getScore();
+        result.ballsLost = simulation.getBallsLost();
+        result.fruit[0] = simulation.getFruitCollected(FruitKind.APPLE);
+        result.fruit[1] = simulation.getFruitCollected(FruitKind.ORANGE);
+        result.fruit[2] = simulation.getFruitCollected(FruitKind.PEAR);
+        result.fruit[3] = simulation.getFruitCollected(FruitKind.BLUEBERRY);
+        result.fruit[4] = simulation.getFruitCollected(FruitKind.CHERRY);
+        result.powerUpPeak = simulation.getPowerUps().getPeak();
+        result.powerUpOverflow = simulation.getPowerUps().getOverflowed();
+        result.powerUpCapacity = simulation.getPowerUps().getCapacity();
+        result.ballPeak = simulation.getBalls().getPeak();
+        result.ballOverflow = simulation.getBalls().getOverflowed();
+        result.ballCapacity = simulation.getBalls().getCapacity();
+        result.finished = simulation.isGameOver();
+    }
+
+    // launches straight away and keeps the basket under the ball, swaying a little off
+    // center so the ball doesn't settle into bouncing straight up and down. the sway is
+    // slow enough that now and then the ball gets past, so games do end
+    private static int scriptedKeys(GameSimulation simulation) {
+        if (!simulation.isGameStarted()) {
+            return GameInput.LAUNCH;
+        }
+        BallSet balls = simulation.getBalls();
+        Paddle paddle = simulation.getPaddle();
+        double target = balls.getX(0) + 70 * Math.sin(simulation.getTickCount() * 0.0051);
+        double center = paddle.getX() + paddle.getWidth() / 2.0;
+        if (target < center - 4) {
+            return GameInput.LEFT;
+        }
+        return target > center + 4 ? GameInput.RIGHT : 0;
+    }
+
+    private static void report(Result[] results, long nanos) {
+        int games = results.length;
+        if (games == 0) {
+            return;
+        }
+        int[] waves = new int[games];
+        int[] scores = new int[games];
+        long totalTicks = 0;
+        long totalBallsLost = 0;
+        long[] fruit = new long[5];
+        int powerUpPeak = 0;
+        long powerUpOverflow = 0;
+        int ballPeak = 0;
+        long ballOverflow = 0;
+        int finished = 0;
+        for (int i = 0; i < games; i++) {
+            Result result = results[i];
+            waves[i] = result.wave;
+            scores[i] = result.score;
+            totalTicks += result.ticks;
+            totalBallsLost += result.ballsLost;
+            for (int f = 0; f < fruit.length; f++) {
+                fruit[f] += result.fruit[f];
+            }
+            powerUpPeak = Math.max(powerUpPeak, result.powerUpPeak);
+            powerUpOverflow += result.powerUpOverflow;
+            ballPeak = Math.max(ballPeak, result.ballPeak);
+            ballOverflow += result.ballOverflow;
+            if (result.finished) {
+                finished++;
+            }
+        }
+        Arrays.sort(waves);
+        Arrays.sort(scores);
+
+        double seconds = nanos / 1e9;
+        double playedMinutes = totalTicks * GameSimulation.TICK_SECONDS / 60;
+        System.out.println(String.format("%d games (%d lost every life, %d ran out of ticks) in %.2f s",
+                                         games, finished, games - finished, seconds));
+        System.out.println(String.format("throughput: %.1f games/s, %.0f ticks/s", games / seconds, totalTicks / seconds));
+        System.out.println("waves reached: " + distribution(waves));
+        System.out.println("score:         " + distribution(scores));
+        System.out.println(String.format("fruit per game: %.1f apples, %.1f oranges, %.1f pears, %.1f blueberries, %.1f cherries",
+                                         (double)fruit[0] / games, (double)fruit[1] / games,
+                                         (double)fruit[2] / games, (double)fruit[3] / games,
+                                         (double)fruit[4] / games));
+        System.out.println(String.format("balls lost: %.2f per game, %.2f per minute of play",
+                                         (double)totalBallsLost / games, totalBallsLost / playedMinutes));
+        System.out.println(String.format("power-ups: at most %d falling at once (room for %d), %d lost to a full pool",
+                                         powerUpPeak, results[0].powerUpCapacity, powerUpOverflow));
+        System.out.println(String.format("balls: at most %d in play at once (room for %d), %d left out of a full set",
+                                         ballPeak, results[0].ballCapacity, ballOverflow));
+
+        // how many games got to each wave
+        StringBuilder histogram = new StringBuilder("games by last wave:");
+        for (int i = 0; i < games; ) {
+            int wave = waves[i];
+            int count = 0;
+            while (i < games && waves[i] == wave) {
+                count++;
+                i++;
+            }
+            histogram.append(' ').append(wave).append('=').append(count);
+        }
+        System.out.println(histogram);
+    }
+
+    // mean and a few percentiles of sorted values
+    private static String distribution(int[] sorted) {
+        long sum = 0;
+        for (int value : sorted) {
+            sum += value;
+        }
+        return String.format("mean %.1f, min %d, p10 %d, p50 %d, p90 %d, max %d",
+                             (double)sum / sorted.length, sorted[0], percentile(sorted, 0.10),
+                             percentile(sorted, 0.50), percentile(sorted, 0.90), sorted[sorted.length - 1]);
+    }
+
+    private static int percentile(int[] sorted, double fraction) {
+        int index = (int)Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
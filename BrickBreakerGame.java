@@ -1,64 +1,136 @@
 import java.awt.*;
 import javax.swing.*;
 import java.util.HashMap;
-import javax.sound.sampled.*;
-import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 public class BrickBreakerGame extends JPanel {
-    // here we are managing the different screen we show
+    // how to make a screen, the pictures it shows, and whether players usually see it only once
+    private static class ScreenFactory {
+        final Function<BrickBreakerGame, GameScreen> make;
+        final String[] pictures;
+        final boolean seenOnce;
+        
+        ScreenFactory(Function<BrickBreakerGame, GameScreen> make, String[] pictures, boolean seenOnce) {
+            this.make = make;
+            this.pictures = pictures;
+            this.seenOnce = seenOnce;
+        }
+    }
+    
+    // here we are managing the different screen we show, each one is built the first time it's needed
+    private LinkedHashMap<String, ScreenFactory> factories;
     private HashMap<String, GameScreen> screens;
     private String currentScreen;
     private String gameMode;
-    private Clip backgroundMusic;
+    private SoundBank soundBank;
+    private AssetLoader assets;
+    private CompletableFuture<Void> spritesLoad;
+    
+    // hidden screens that are usually seen once, least recently shown first. once their
+    // pictures add up to more than the budget the oldest ones let go of theirs
+    private LinkedHashMap<String, GameScreen> hiddenScreens;
+    private long screenBudget;
     
     // making an instance of gameplay screen
     private GamePlayScreen gamePlayScreen;
     
     public BrickBreakerGame() {
-        playBackgroundMusic();
+        assets = new AssetLoader();
+        soundBank = new SoundBank();
         setLayout(new CardLayout());
         screens = new HashMap<>();
+        hiddenScreens = new LinkedHashMap<>();
+        screenBudget = Long.getLong("brickbreaker.screenBudgetKB", 4096) * 1024;
         
-        // initialize all the screens
-        screens.put("home", new HomeScreen(this));
-        screens.put("doorKnock", new DoorKnockScreen(this));
-        screens.put("tomNookTalking", new TomNookTalkingScreen(this));
-        screens.put("howToPlay", new HowToPlayScreen(this));
-        screens.put("menu", new MenuScreen(this));
-        
-        // settings up actual gameplay
-        gamePlayScreen = new GamePlayScreen(this);
-        screens.put("game", gamePlayScreen);
-        
-        screens.put("options", new OptionsScreen(this));
-        screens.put("endGame", new EndGameScreen(this));
-        
-        // adding all screens to a panel
-        for (String key : screens.keySet()) {
-            add(screens.get(key), key);
-        }
+        // in about the order players get to them
+        factories = new LinkedHashMap<>();
+        factories.put("home", new ScreenFactory(HomeScreen::new, HomeScreen.PICTURES, true));
+        factories.put("doorKnock", new ScreenFactory(DoorKnockScreen::new, DoorKnockScreen.PICTURES, true));
+        factories.put("tomNookTalking", new ScreenFactory(TomNookTalkingScreen::new, TomNookTalkingScreen.PICTURES, true));
+        factories.put("howToPlay", new ScreenFactory(HowToPlayScreen::new, HowToPlayScreen.PICTURES, true));
+        factories.put("menu", new ScreenFactory(MenuScreen::new, MenuScreen.PICTURES, false));
+        factories.put("game", new ScreenFactory(GamePlayScreen::new, GamePlayScreen.PICTURES, false));
+        factories.put("options", new ScreenFactory(OptionsScreen::new, OptionsScreen.PICTURES, false));
+        factories.put("endGame", new ScreenFactory(EndGameScreen::new, EndGameScreen.PICTURES, false));
         
-        // start with homescreen
+        // the home screen's picture is the only asset waited for before the first frame
         currentScreen = "home";
         showScreen(currentScreen);
+        
+        // everything else is decoded in parallel in the background
+        for (String filename : SoundBank.SOUND_EFFECTS) {
+            assets.run(() -> soundBank.load(filename));
+        }
+        assets.run(this::playBackgroundMusic);
+        for (ScreenFactory factory : factories.values()) {
+            for (String picture : factory.pictures) {
+                assets.icon(picture);
+            }
+        }
+        // the sprite atlas is only needed once a game starts, so it goes last
+        spritesLoad = assets.run(SpriteCache::get);
     }
     
     public void showScreen(String screenName) {
-        if (screens.containsKey(screenName)) {
-            // if resetting the game
-            if (screenName.equals("game")) {
-                gamePlayScreen.resetGame();
+        GameScreen screen = getScreen(screenName);
+        if (screen == null) {
+            return;
+        }
+        
+        GameScreen previous = screens.get(currentScreen);
+        if (previous != screen && previous != null) {
+            previous.onDeactivate();
+            if (factories.get(currentScreen).seenOnce) {
+                hiddenScreens.put(currentScreen, previous);
             }
-            
-            CardLayout cardLayout = (CardLayout) getLayout();
-            cardLayout.show(this, screenName);
-            currentScreen = screenName;
-            screens.get(screenName).onActivate();
         }
+        hiddenScreens.remove(screenName);
+        
+        // if resetting the game
+        if (screenName.equals("game")) {
+            gamePlayScreen.resetGame();
+        }
+        
+        screen.awaitPictures();
+        CardLayout cardLayout = (CardLayout) getLayout();
+        cardLayout.show(this, screenName);
+        currentScreen = screenName;
+        screen.onActivate();
+        releaseHiddenScreens();
     }
     
+    // the screen, built and added the first time it's asked for
     public GameScreen getScreen(String screenName) {
-        return screens.get(screenName);
+        GameScreen screen = screens.get(screenName);
+        ScreenFactory factory = factories.get(screenName);
+        if (screen == null && factory != null) {
+            screen = factory.make.apply(this);
+            screens.put(screenName, screen);
+            add(screen, screenName);
+            if (screen instanceof GamePlayScreen) {
+                gamePlayScreen = (GamePlayScreen)screen;
+            }
+        }
+        return screen;
+    }
+    
+    // lets the least recently shown screens go of their pictures until the rest fit the budget.
+    // they stay built and pick their pictures up again if they're shown again
+    private void releaseHiddenScreens() {
+        long bytes = 0;
+        for (GameScreen screen : hiddenScreens.values()) {
+            bytes += screen.getAssetBytes();
+        }
+        Iterator<GameScreen> oldest = hiddenScreens.values().iterator();
+        while (bytes > screenBudget && oldest.hasNext()) {
+            GameScreen screen = oldest.next();
+            bytes -= screen.getAssetBytes();
+            screen.releaseAssets();
+            oldest.remove();
+        }
     }
     
     /*
@@ -69,6 +141,19 @@ public class BrickBreakerGame extends JPanel {
         }
     }*/
     
+    public SoundBank getSoundBank() {
+        return soundBank;
+    }
+    
+    public AssetLoader getAssets() {
+        return assets;
+    }
+    
+    // finishes when the sprite atlas is built
+    public CompletableFuture<Void> getSpritesLoad() {
+        return spritesLoad;
+    }
+    
     public String getGameMode() {
         return gameMode;
     }
@@ -78,44 +163,17 @@ public class BrickBreakerGame extends JPanel {
     }
     
     private void playBackgroundMusic() {
-        try {
-            File musicFile = new File("BackgroundMusic.wav");
-            AudioInputStream audioStream = AudioSystem.getAudioInputStream(musicFile);
-            backgroundMusic = AudioSystem.getClip();
-            backgroundMusic.open(audioStream);
-            backgroundMusic.loop(Clip.LOOP_CONTINUOUSLY);
-            FloatControl volumeControl = (FloatControl) backgroundMusic.getControl(FloatControl.Type.MASTER_GAIN);
-            float volume = -20.0f;
-            volumeControl.setValue(volume);
-            backgroundMusic.start();
-        } catch (Exception e) {
-            System.out.println("error loading background music: " + e.getMessage());
-            e.printStackTrace();
-        }
+        // music loops on its own mixer bus so volume changes are just a gain
+        soundBank.setMusicVolume(-20.0f);
+        soundBank.playMusic("BackgroundMusic.wav");
     }
     
+    // volume level is in decibels, same scale as the options screen slider
     public void setMusicVolume(float volumeLevel) {
-        if (backgroundMusic != null) {
-            try {
-                FloatControl volumeControl = (FloatControl) backgroundMusic.getControl(FloatControl.Type.MASTER_GAIN);
-                volumeControl.setValue(volumeLevel);
-            } catch (Exception e) {
-                System.out.println("error setting volume: " + e.getMessage());
-            }
-        }
+        soundBank.setMusicVolume(volumeLevel);
     }
     
     public void playClickSound() {
-        try {
-            File audioFile = new File("ClickSound.wav");
-            if (audioFile.exists()) {
-                AudioInputStream audioStream = AudioSystem.getAudioInputStream(audioFile);
-                Clip clip = AudioSystem.getClip();
-                clip.open(audioStream);
-                clip.start();
-            }
-        } catch (Exception e) {
-            System.out.println("error playing click sound: " + e.getMessage());
-        }
+        soundBank.play("ClickSound.wav");
     }
 }
\ No newline at end of file
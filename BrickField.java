@@ -0,0 +1,60 @@
+import java.util.ArrayList;
+
+// running totals for the bricks of the current wave, kept up to date by BrickGrid as bricks
+// are placed, hit and broken so nobody has to scan the board to count them
+public class BrickField {
+    private int liveCount;
+    private int[] liveByKind = new int[FruitKind.values().length];
+    private int[] brokenByKind = new int[FruitKind.values().length];
+
+    private ArrayList<Listener> listeners = new ArrayList<>();
+
+    // told about every brick that gets hit or broken
+    public interface Listener {
+        void onBrickHit(int cell, FruitKind kind);
+        void onBrickBroken(int cell, FruitKind kind);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    // starts counting a new wave from an empty board
+    public void beginWave() {
+        liveCount = 0;
+        for (int i = 0; i < liveByKind.length; i++) {
+            liveByKind[i] = 0;
+            brokenByKind[i] = 0;
+        }
+    }
+
+    void brickAdded(FruitKind kind) {
+        liveCount++;
+        liveByKind[kind.getId()]++;
+    }
+
+    void brickHit(int cell, FruitKind kind) {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onBrickHit(cell, kind);
+        }
+    }
+
+    void brickBroken(int cell, FruitKind kind) {
+        liveCount--;
+        liveByKind[kind.getId()]--;
+        brokenByKind[kind.getId()]++;
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onBrickBroken(cell, kind);
+        }
+    }
+
+    // true once every brick of the wave is gone
+    public boolean isCleared() {
+        return liveCount == 0;
+    }
+
+    // getters
+    public int getLiveCount() { return liveCount; }
+    public int getLiveCount(FruitKind kind) { return liveByKind[kind.getId()]; }
+    public int getBrokenCount(FruitKind kind) { return brokenByKind[kind.getId()]; }
+}
@@ -0,0 +1,225 @@
+import java.awt.*;
+import java.util.Arrays;
+
+// every brick on the board, stored as plain arrays indexed by cell (row * cols + col)
+// so a 100x200 board costs a few hundred KB and no objects per brick
+public class BrickGrid {
+    private int rows;
+    private int cols;
+
+    // per-cell state
+    private int[] cellX, cellY;     // top-left corner of each brick
+    private byte[] kind;            // FruitKind id
+    private byte[] hits;            // hits taken so far
+    private long[] live;            // one bit per cell, set while the brick is standing
+    private int[] rowLive;          // live bricks in each row
+
+    // counts for the current wave, told about every change
+    private BrickField field = new BrickField();
+
+    // size of every brick
+    private int brickWidth, brickHeight;
+
+    // where the first cell starts and how far apart cells are
+    private double originX, originY;
+    private double pitchX, pitchY;
+
+    // one sprite per kind at the brick size, looked up once
+    private SpriteCache.Sprite[] sprites;
+
+    public BrickGrid(int rows, int cols, int brickWidth, int brickHeight) {
+        this.rows = rows;
+        this.cols = cols;
+        this.brickWidth = brickWidth;
+        this.brickHeight = brickHeight;
+
+        int cells = rows * cols;
+        cellX = new int[cells];
+        cellY = new int[cells];
+        kind = new byte[cells];
+        hits = new byte[cells];
+        live = new long[(cells + 63) / 64];
+        rowLive = new int[rows];
+    }
+
+    // removes every brick and moves the grid, ready to be filled for a new wave
+    public void clear(double originX, double originY, double pitchX, double pitchY) {
+        this.originX = originX;
+        this.originY = originY;
+        this.pitchX = pitchX;
+        this.pitchY = pitchY;
+        Arrays.fill(live, 0L);
+        Arrays.fill(rowLive, 0);
+        field.beginWave();
+    }
+
+    public void set(int row, int col, int x, int y, FruitKind fruitKind) {
+        int cell = row * cols + col;
+        cellX[cell] = x;
+        cellY[cell] = y;
+        kind[cell] = (byte)fruitKind.getId();
+        hits[cell] = 0;
+        if (!isLive(cell)) {
+            live[cell >>> 6] |= 1L << cell;
+            rowLive[row]++;
+            field.brickAdded(fruitKind);
+        }
+    }
+
+    // counts a hit on a brick, returns true if that broke it
+    public boolean hit(int cell) {
+        FruitKind fruitKind = getKind(cell);
+        hits[cell]++;
+        if (hits[cell] < fruitKind.getHitsRequired()) {
+            field.brickHit(cell, fruitKind);
+            return false;
+        }
+        live[cell >>> 6] &= ~(1L << cell);
+        rowLive[cell / cols]--;
+        field.brickBroken(cell, fruitKind);
+        return true;
+    }
+
+    // finds the first live brick a circle touches while moving from (x, y) by (dx, dy)
+    // only the cells under the swept path are looked at, returns the cell or -1
+    public int sweep(double x, double y, double dx, double dy, double radius, int ignore,
+                     SweptCollision.Hit hit) {
+        int firstCol = cellColumn(Math.min(x, x + dx) - radius);
+        int lastCol = cellColumn(Math.max(x, x + dx) + radius + 1);
+        int firstRow = cellRow(Math.min(y, y + dy) - radius);
+        int lastRow = cellRow(Math.max(y, y + dy) + radius + 1);
+
+        // most balls are out in the open below the board, nothing there to test
+        if (firstRow >= rows || lastRow < 0 || firstCol >= cols || lastCol < 0) {
+            hit.t = 2;
+            hit.normalX = 0;
+            hit.normalY = 0;
+            hit.tested = 0;
+            return -1;
+        }
+        firstCol = Math.max(0, firstCol);
+        lastCol = Math.min(cols - 1, lastCol);
+        firstRow = Math.max(0, firstRow);
+        lastRow = Math.min(rows - 1, lastRow);
+
+        int closest = -1;
+        int tested = 0;
+        double closestT = 2;
+        double normalX = 0;
+        double normalY = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            if (rowLive[row] == 0) {
+                continue;
+            }
+            int rowStart = row * cols;
+            for (int cell = nextLive(rowStart + firstCol, rowStart + lastCol); cell >= 0;
+                 cell = nextLive(cell + 1, rowStart + lastCol)) {
+                if (cell == ignore) {
+                    continue;
+                }
+                tested++;
+                if (SweptCollision.circleVsBox(x, y, dx, dy, radius,
+                                               cellX[cell], cellY[cell],
+                                               cellX[cell] + brickWidth, cellY[cell] + brickHeight,
+                                               hit) && hit.t < closestT) {
+                    closest = cell;
+                    closestT = hit.t;
+                    normalX = hit.normalX;
+                    normalY = hit.normalY;
+                }
+            }
+        }
+
+        hit.t = closestT;
+        hit.normalX = normalX;
+        hit.normalY = normalY;
+        hit.tested = tested;
+        return closest;
+    }
+
+    // draws the live bricks inside the given area, rows and columns outside it are skipped
+    public void draw(Graphics g, int left, int top, int right, int bottom) {
+        if (field.isCleared()) {
+            return;
+        }
+        if (sprites == null) {
+            // looked up on the first draw so a new game doesn't wait for the atlas, see Paddle
+            FruitKind[] kinds = FruitKind.values();
+            sprites = new SpriteCache.Sprite[kinds.length];
+            for (FruitKind fruitKind : kinds) {
+                sprites[fruitKind.getId()] = SpriteCache.get().getSprite(fruitKind.getImageFile(), brickWidth, brickHeight);
+            }
+        }
+        int firstCol = colAt(left);
+        int lastCol = colAt(right + 1);
+        int firstRow = rowAt(top);
+        int lastRow = rowAt(bottom + 1);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            if (rowLive[row] == 0) {
+                continue;
+            }
+            int rowStart = row * cols;
+            for (int cell = nextLive(rowStart + firstCol, rowStart + lastCol); cell >= 0;
+                 cell = nextLive(cell + 1, rowStart + lastCol)) {
+                int id = kind[cell];
+                FruitKind.fromId(id).draw(g, sprites[id], cellX[cell], cellY[cell],
+                                          brickWidth, brickHeight, hits[cell]);
+            }
+        }
+    }
+
+    // first live cell between from and to (inclusive), or -1
+    public int nextLive(int from, int to) {
+        while (from <= to) {
+            long word = live[from >>> 6] >>> from; // java only uses the low 6 bits of the shift
+            if (word != 0) {
+                int cell = from + Long.numberOfTrailingZeros(word);
+                return cell <= to ? cell : -1;
+            }
+            from = (from | 63) + 1;
+        }
+        return -1;
+    }
+
+    // column under an x position, clamped to the grid; bricks are placed at truncated
+    // positions so they can start up to a pixel before their cell
+    private int colAt(double x) {
+        return Math.max(0, Math.min(cols - 1, cellColumn(x)));
+    }
+
+    private int rowAt(double y) {
+        return Math.max(0, Math.min(rows - 1, cellRow(y)));
+    }
+
+    // the same without the clamp, so off the board is below 0 or past the last one
+    private int cellColumn(double x) {
+        return (int)Math.floor((x - originX - 1) / pitchX);
+    }
+
+    private int cellRow(double y) {
+        return (int)Math.floor((y - originY - 1) / pitchY);
+    }
+
+    public boolean isLive(int cell) {
+        return (live[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    public int cellIndex(int row, int col) {
+        return row * cols + col;
+    }
+
+    // getters
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int getLiveCount() { return field.getLiveCount(); }
+    public BrickField getField() { return field; }
+    public int getX(int cell) { return cellX[cell]; }
+    public int getY(int cell) { return cellY[cell]; }
+    public int getHits(int cell) { return hits[cell]; }
+    public FruitKind getKind(int cell) { return FruitKind.fromId(kind[cell]); }
+    public int getBrickWidth() { return brickWidth; }
+    public int getBrickHeight() { return brickHeight; }
+    public double getOriginY() { return originY; }
+    public double getPitchY() { return pitchY; }
+}
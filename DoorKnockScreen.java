@@ -0,0 +1,61 @@
+import javax.swing.*;
+import javax.swing.Timer;
+import java.awt.*;
+import java.awt.event.*;
+
+public class DoorKnockScreen extends GameScreen {
+    public static final String[] PICTURES = { "DoorKnockScreen.png" };
+    
+    private LayerCache background;
+    private int knockCount = 0;
+    private Rectangle doorBounds;
+    private boolean doorOpening = false;
+    
+    public DoorKnockScreen(BrickBreakerGame game) {
+        super(game);
+        
+        background = addLayer(LayerCache.forPicture(addPicture(PICTURES[0]), null));
+        
+        // the door in the picture
+        doorBounds = new Rectangle(114, 181, 221, 259);
+        
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (doorBounds.contains(e.getPoint()) && !doorOpening) {
+                    game.playClickSound();
+                    game.getSoundBank().play("knock.wav");
+                    knockCount++;
+                    
+                    // two knocks and tom nook opens the door
+                    if (knockCount >= 2) {
+                        doorOpening = true;
+                        Timer timer = new Timer(500, new ActionListener() {
+                            @Override
+                            public void actionPerformed(ActionEvent e) {
+                                game.showScreen("tomNookTalking");
+                            }
+                        });
+                        timer.setRepeats(false);
+                        timer.start();
+                    }
+                    repaint();
+                }
+            }
+        });
+    }
+    
+    @Override
+    public void onActivate() {
+        knockCount = 0;
+        doorOpening = false;
+        // built now so tom nook's first page is decoded while the player knocks
+        game.getScreen("tomNookTalking");
+    }
+    
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        background.draw(g, this);
+    }
+}
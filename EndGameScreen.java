@@ -3,7 +3,10 @@ import java.awt.*;
 import java.awt.event.*;
 
 public class EndGameScreen extends GameScreen {
-    private ImageIcon backgroundImage;
+    public static final String[] PICTURES = { "EndGameScreen.png", "Apple.png", "Orange.png", "Pear.png", "Blueberry.png" };
+    
+    private ScreenPicture backgroundPicture;
+    private LayerCache background;      // background plus the score card, redrawn when the stats change
     private Rectangle playAgainButtonBounds;
     private Rectangle menuButtonBounds;
     private Rectangle quitButtonBounds;
@@ -12,32 +15,41 @@ public class EndGameScreen extends GameScreen {
     // debug flag - off by default
     private boolean showDebugBounds = false;
     
-    // fruit statistics
-    private int applesCollected = 0;
-    private int orangesCollected = 0;
-    private int pearsCollected = 0;
-    private int blueberriesCollected = 0;
+    // one row of the score card per fruit, in the order they're drawn, with where the row's
+    // icon and count go in the background picture
+    private static final FruitKind[] FRUIT_ROWS = { FruitKind.APPLE, FruitKind.ORANGE, FruitKind.PEAR, FruitKind.BLUEBERRY };
+    private static final int[] ROW_ICON_Y = { 177, 200, 223, 245 };
+    private static final int[] ROW_COUNT_X = { 220, 227, 211, 242 };
+    private static final int[] ROW_COUNT_Y = { 192, 215, 237, 261 };
+    
+    // fruit statistics, by FruitKind id
+    private int[] fruitCollected = new int[FruitKind.values().length];
+    private int totalFruit = 0;
     
-    // fruit images
-    private ImageIcon appleIcon;
-    private ImageIcon orangeIcon;
-    private ImageIcon pearIcon;
-    private ImageIcon blueberryIcon;
+    // fruit images, one per row
+    private ScreenPicture[] fruitPictures;
     
     public EndGameScreen(BrickBreakerGame game) {
         super(game);
         
-        try {
-            backgroundImage = new ImageIcon("EndGameScreen.png");
-            appleIcon = new ImageIcon("Apple.png");
-            orangeIcon = new ImageIcon("Orange.png");
-            pearIcon = new ImageIcon("Pear.png");
-            blueberryIcon = new ImageIcon("Blueberry.png");
-        } catch (Exception e) {
-            System.out.println("error loading end game images: " + e.getMessage());
-            e.printStackTrace();
-            backgroundImage = null;
+        backgroundPicture = addPicture(PICTURES[0]);
+        fruitPictures = new ScreenPicture[FRUIT_ROWS.length];
+        for (int i = 0; i < FRUIT_ROWS.length; i++) {
+            fruitPictures[i] = addPicture(PICTURES[i + 1]);
         }
+        background = addLayer(new LayerCache((g, width, height) -> {
+            ImageIcon backgroundImage = backgroundPicture.get();
+            if (backgroundImage != null) {
+                g.drawImage(backgroundImage.getImage(), 0, 0, width, height, null);
+            } else {
+                // default background if image fails to load
+                g.setColor(new Color(40, 40, 40));
+                g.fillRect(0, 0, width, height);
+            }
+            
+            // draw score info if background image doesn't contain the text
+            drawScoreInfo(g);
+        }));
         
         // define button areas with the coordinates you provided
         // top-left to bottom-right coordinates for each button
@@ -95,14 +107,18 @@ public class EndGameScreen extends GameScreen {
     
     public void setFinalScore(int score) {
         this.finalScore = score;
+        background.invalidate();
         repaint();
     }
     
-    public void setFruitStats(int apples, int oranges, int pears, int blueberries) {
-        this.applesCollected = apples;
-        this.orangesCollected = oranges;
-        this.pearsCollected = pears;
-        this.blueberriesCollected = blueberries;
+    // counts by FruitKind id, as GameSimulation keeps them
+    public void setFruitStats(int[] collected) {
+        System.arraycopy(collected, 0, fruitCollected, 0, fruitCollected.length);
+        totalFruit = 0;
+        for (FruitKind kind : FRUIT_ROWS) {
+            totalFruit += fruitCollected[kind.getId()];
+        }
+        background.invalidate();
         repaint();
     }
     
@@ -116,17 +132,8 @@ public class EndGameScreen extends GameScreen {
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
         
-        // draw background
-        if (backgroundImage != null) {
-            g.drawImage(backgroundImage.getImage(), 0, 0, getWidth(), getHeight(), this);
-        } else {
-            // default background if image fails to load
-            g.setColor(new Color(40, 40, 40));
-            g.fillRect(0, 0, getWidth(), getHeight());
-        }
-        
-        // draw score info if background image doesn't contain the text
-        drawScoreInfo(g);
+        // background and score card only change when the stats do
+        background.draw(g, this);
         
         // draw debug bounds if enabled
         if (showDebugBounds) {
@@ -146,36 +153,23 @@ public class EndGameScreen extends GameScreen {
         g.setFont(new Font("Arial", Font.BOLD, 20));
         
         // draw fruit icons and their counts
-        // apple row
-        if (appleIcon != null) {
-            g.drawImage(appleIcon.getImage(), 99, 177, 25, 25, null);
-        }
-        g.drawString("" + applesCollected, 220, 192);
-        
-        // orange row
-        if (orangeIcon != null) {
-            g.drawImage(orangeIcon.getImage(), 99, 200, 25, 25, null);
+        for (int i = 0; i < FRUIT_ROWS.length; i++) {
+            drawFruitIcon(g, fruitPictures[i], ROW_ICON_Y[i]);
+            g.drawString("" + fruitCollected[FRUIT_ROWS[i].getId()], ROW_COUNT_X[i], ROW_COUNT_Y[i]);
         }
-        g.drawString("" + orangesCollected, 227, 215);
-        
-        // pear row
-        if (pearIcon != null) {
-            g.drawImage(pearIcon.getImage(), 99, 223, 25, 25, null);
-        }
-        g.drawString("" + pearsCollected, 211, 237);
-        
-        // blueberry row
-        if (blueberryIcon != null) {
-            g.drawImage(blueberryIcon.getImage(), 99, 245, 25, 25, null);
-        }
-        g.drawString("" + blueberriesCollected, 242, 261);
         
         // total fruit collected
-        int totalFruit = applesCollected + orangesCollected + pearsCollected + blueberriesCollected;
         g.setFont(new Font("Arial", Font.BOLD, 24));
         g.drawString("" + totalFruit, 348, 303);
     }
     
+    private void drawFruitIcon(Graphics g, ScreenPicture picture, int y) {
+        ImageIcon icon = picture.get();
+        if (icon != null) {
+            g.drawImage(icon.getImage(), 99, y, 25, 25, null);
+        }
+    }
+    
     private void drawDebugBounds(Graphics g) {
         // use different colors for each button bound for clarity
         
@@ -218,17 +212,15 @@ public class EndGameScreen extends GameScreen {
         g.fillRect(311, 142-20, 50, 25);  // score area (adjust up by text height)
         
         // highlight fruit count areas
-        g.fillRect(220, 192-20, 30, 25);  // apple count
-        g.fillRect(227, 215-20, 30, 25);  // orange count
-        g.fillRect(211, 237-20, 30, 25);  // pear count
-        g.fillRect(242, 261-20, 30, 25);  // blueberry count
+        for (int i = 0; i < FRUIT_ROWS.length; i++) {
+            g.fillRect(ROW_COUNT_X[i], ROW_COUNT_Y[i]-20, 30, 25);
+        }
         g.fillRect(348, 303-20, 30, 25);  // total count
         
         // highlight fruit icon areas
         g.setColor(new Color(255, 0, 0, 50));  // very transparent red
-        g.fillRect(99, 177, 25, 25);  // apple icon
-        g.fillRect(99, 200, 25, 25);  // orange icon
-        g.fillRect(99, 223, 25, 25);  // pear icon
-        g.fillRect(99, 245, 25, 25);  // blueberry icon
+        for (int i = 0; i < FRUIT_ROWS.length; i++) {
+            g.fillRect(99, ROW_ICON_Y[i], 25, 25);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,200 @@
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+// timings for the last few seconds of frames, kept in fixed rings so recording them costs a
+// few nanoTime calls a frame and never allocates. the thread that runs the frames (the edt,
+// or the game loop thread) is the only writer; each frame is filled in first and then
+// published by bumping a volatile counter, so readers never need a lock.
+// gc times come from the collectors' notifications into a ring of their own. a collection's
+// duration is how long it ran from start to end, which for a concurrent collector is mostly
+// time spent alongside the game rather than time the game was stopped
+public class FrameStats {
+    public static final int FRAMES = 240;           // about 4 seconds at 60 fps
+    private static final int GC_TIMES = 32;
+
+    // one slot per frame, frame number % FRAMES
+    private final long[] frameNanos = new long[FRAMES];
+    private final long[] simulationNanos = new long[FRAMES];
+    private final long[] renderNanos = new long[FRAMES];
+    private final long[] audioNanos = new long[FRAMES];
+    private final long[] allocatedBytes = new long[FRAMES];
+    private volatile long frames;                   // frames published so far
+
+    // the frame being filled in
+    private long frameStart;
+    private long simulation, render, audio;
+    private long allocatedAtStart;
+    private boolean sampledAtStart;                 // whether allocatedAtStart was actually read
+    private long excluded;                          // bytes left out of this frame, see excludeAllocation
+
+    // allocation sampling costs a little more, so it only runs while someone is looking
+    private volatile boolean detailed;
+    private com.sun.management.ThreadMXBean threads;
+
+    // gc durations seen since the game started, written by the notification thread only
+    private final long[] gcTimeMillis = new long[GC_TIMES];
+    private volatile long gcCount;
+    private volatile long gcMaxMillis;
+    private volatile long gcTotalMillis;
+
+    // scratch for percentiles, only used by the reader
+    private final long[] sorted = new long[FRAMES];
+
+    public FrameStats() {
+        try {
+            threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        } catch (Exception e) {
+            System.out.println("error reading allocation counters: " + e.getMessage());
+            threads = null;
+        }
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                ((NotificationEmitter)gc).addNotificationListener((notification, handback) -> {
+                    if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                        recordGc(GarbageCollectionNotificationInfo.from((CompositeData)notification.getUserData())
+                                 .getGcInfo().getDuration());
+                    }
+                }, null, null);
+            }
+        }
+    }
+
+    // closes the last frame and starts timing the next one
+    public void beginFrame() {
+        long now = System.nanoTime();
+        boolean sampling = detailed && threads != null;
+        long allocated = sampling ? threads.getCurrentThreadAllocatedBytes() : 0;
+        if (frameStart != 0) {
+            int slot = (int)(frames % FRAMES);
+            frameNanos[slot] = now - frameStart;
+            simulationNanos[slot] = simulation;
+            renderNanos[slot] = render;
+            audioNanos[slot] = audio;
+            // -1 when the frame wasn't sampled. the first frame after sampling is switched on has
+            // no start count, so it is left out too
+            allocatedBytes[slot] = sampling && sampledAtStart ? allocated - allocatedAtStart - excluded : -1;
+            frames = frames + 1; // publishes the slot, only this thread writes it
+        }
+        frameStart = now;
+        allocatedAtStart = allocated;
+        sampledAtStart = sampling;
+        excluded = 0;
+        simulation = 0;
+        render = 0;
+        audio = 0;
+    }
+
+    public void addSimulation(long nanos) {
+        simulation += nanos;
+    }
+
+    public void addRender(long nanos) {
+        render += nanos;
+    }
+
+    public void addAudio(long nanos) {
+        audio += nanos;
+    }
+
+    // the frame thread's allocation counter, 0 unless detailed sampling is on. only call these
+    // two on the frame thread
+    public long markAllocation() {
+        return detailed && threads != null ? threads.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    // leaves whatever the frame thread allocated since the mark out of this frame's count, so
+    // drawing the stats doesn't show up in them
+    public void excludeAllocation(long mark) {
+        long now = markAllocation();
+        if (mark != 0 && now != 0) {
+            excluded += now - mark;
+        }
+    }
+
+    // safe from any thread, the frame thread notices the change at its next beginFrame
+    public void setDetailed(boolean detailed) {
+        this.detailed = detailed;
+    }
+
+    private void recordGc(long millis) {
+        long count = gcCount;
+        gcTimeMillis[(int)(count % GC_TIMES)] = millis;
+        gcTotalMillis += millis;
+        if (millis > gcMaxMillis) {
+            gcMaxMillis = millis;
+        }
+        gcCount = count + 1;
+    }
+
+    // number of frames in the ring right now
+    public int getFrameCount() {
+        return (int)Math.min(frames, FRAMES);
+    }
+
+    // frame time of the i-th oldest frame still in the ring
+    public long getFrameNanos(int i) {
+        long published = frames;
+        long first = published - Math.min(published, FRAMES);
+        return frameNanos[(int)((first + i) % FRAMES)];
+    }
+
+    // frame time at a fraction (0.5 for the median) of the frames in the ring
+    public long getFramePercentile(double fraction) {
+        int count = getFrameCount();
+        if (count == 0) {
+            return 0;
+        }
+        for (int i = 0; i < count; i++) {
+            sorted[i] = getFrameNanos(i);
+        }
+        Arrays.sort(sorted, 0, count);
+        int index = (int)Math.ceil(fraction * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    public long getFrameMax() {
+        return getFramePercentile(1.0);
+    }
+
+    // averages per frame over the ring
+    public long getAverageSimulationNanos() { return average(simulationNanos); }
+    public long getAverageRenderNanos() { return average(renderNanos); }
+    public long getAverageAudioNanos() { return average(audioNanos); }
+
+    private long average(long[] values) {
+        int count = getFrameCount();
+        if (count == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += values[i];
+        }
+        return sum / count;
+    }
+
+    // bytes per second allocated by the frame thread over the ring, 0 until detailed sampling has run a while
+    public long getAllocationRate() {
+        int count = getFrameCount();
+        long bytes = 0;
+        long nanos = 0;
+        for (int i = 0; i < count; i++) {
+            if (allocatedBytes[i] >= 0) {
+                bytes += allocatedBytes[i];
+                nanos += frameNanos[i];
+            }
+        }
+        return nanos > 0 ? (long)(bytes * 1e9 / nanos) : 0;
+    }
+
+    // getters
+    public long getGcCount() { return gcCount; }
+    public long getGcMaxMillis() { return gcMaxMillis; }
+    public long getGcTotalMillis() { return gcTotalMillis; }
+    public long getLastGcMillis() { return gcCount > 0 ? gcTimeMillis[(int)((gcCount - 1) % GC_TIMES)] : 0; }
+    public boolean isDetailed() { return detailed; }
+}
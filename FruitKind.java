@@ -0,0 +1,95 @@
+import java.awt.*;
+
+// every kind of brick on the board, stored by id in the brick grid. the ones with no image
+// have no art yet and are drawn in their color on purpose, see draw
+public enum FruitKind {
+    APPLE("apple", 1, 10, new Color(255, 90, 90), "AppleBrick.png", 0.2, "BrickSound.wav"),
+    ORANGE("orange", 2, 20, new Color(255, 140, 0), null, 0.2, "BrickSound.wav"),
+    PEAR("pear", 3, 30, new Color(180, 220, 40), null, 0.2, "BrickSound.wav"),
+    BLUEBERRY("blueberry", 3, 30, new Color(70, 70, 220), "BlueberryBrick.png", 0.2, "BrickSound.wav"),
+    HEART("heart", 1, 15, new Color(255, 105, 180), "HeartBrick.png", 1.0, "BrickSound.wav"),   // always drops a heart
+    PLUS("plus", 1, 20, new Color(50, 205, 50), null, 1.0, "BrickSound.wav"),                   // always drops a mega basket
+    CHERRY("cherry", 1, 15, new Color(200, 20, 60), null, 1.0, "BrickSound.wav"),               // always drops a multi-ball
+    PEACH("peach", 1, -20, new Color(255, 210, 180), null, 0.0, "PeachSound.wav");              // penalty, never drops anything
+
+    private static final FruitKind[] BY_ID = values();
+
+    // hit indicator colors for the fallback drawing
+    private static final Color ORANGE_MARK = new Color(200, 110, 0);
+    private static final Color PEAR_MARK = new Color(150, 190, 30);
+    private static final Color BLUEBERRY_MARK = new Color(50, 50, 180);
+
+    private final String fruitType;     // name shown in the debug overlay
+    private final int hitsRequired;     // hits needed to break
+    private final int points;           // score for breaking it
+    private final Color color;          // brick color for fallback
+    private final String imageFile;     // brick image, null to always draw the fallback
+    private final double dropChance;    // chance of dropping something when broken, see PowerUpKind.droppedBy
+    private final String hitSound;      // played every time it is hit
+
+    FruitKind(String fruitType, int hitsRequired, int points, Color color, String imageFile, double dropChance,
+              String hitSound) {
+        this.fruitType = fruitType;
+        this.hitsRequired = hitsRequired;
+        this.points = points;
+        this.color = color;
+        this.imageFile = imageFile;
+        this.dropChance = dropChance;
+        this.hitSound = hitSound;
+    }
+
+    public static FruitKind fromId(int id) {
+        return BY_ID[id];
+    }
+
+    // sprite is looked up once by whoever draws a lot of these, see BrickGrid
+    public void draw(Graphics g, SpriteCache.Sprite sprite, int x, int y, int width, int height, int currentHits) {
+        if (sprite != null) {
+            sprite.draw(g, x, y, width, height);
+            return;
+        }
+
+        // fallback to drawing a colored rectangle
+        g.setColor(color);
+        g.fillRect(x, y, width, height);
+
+        // draw a border
+        g.setColor(Color.BLACK);
+        g.drawRect(x, y, width, height);
+
+        // draw indicator of remaining hits
+        if (currentHits == 0) {
+            return;
+        }
+        switch (this) {
+            case ORANGE:
+                // show an x once the orange has been hit
+                g.setColor(ORANGE_MARK);
+                g.drawLine(x + 5, y + 5, x + width - 5, y + height - 5);
+                g.drawLine(x + width - 5, y + 5, x + 5, y + height - 5);
+                break;
+            case PEAR:
+            case BLUEBERRY:
+                // first hit - one crack, second hit - cross crack
+                g.setColor(this == PEAR ? PEAR_MARK : BLUEBERRY_MARK);
+                g.drawLine(x + 5, y + height/2, x + width - 5, y + height/2);
+                if (currentHits > 1) {
+                    g.drawLine(x + width/2, y + 5, x + width/2, y + height - 5);
+                }
+                break;
+            default:
+                // one-hit bricks don't need an indicator
+                break;
+        }
+    }
+
+    // getters
+    public int getId() { return ordinal(); }
+    public String getFruitType() { return fruitType; }
+    public int getHitsRequired() { return hitsRequired; }
+    public int getPoints() { return points; }
+    public Color getColor() { return color; }
+    public String getImageFile() { return imageFile; }
+    public double getDropChance() { return dropChance; }
+    public String getHitSound() { return hitSound; }
+}
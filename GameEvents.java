@@ -0,0 +1,131 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+// flight recorder events for the places a frame can get slow. each one has a threshold, so
+// a recording only keeps the slow ones and they can be left on for players, e.g.
+//
+//   java -XX:StartFlightRecording=filename=game.jfr Main
+//   jfr print --events 'brickbreaker.*' game.jfr
+//
+// the jit doesn't manage to drop event objects made every tick, so the per-tick events (sounds
+// included, bricks play them mid-tick) are only made while a recording has them turned on,
+// and the tick stays allocation free
+public class GameEvents {
+    private static final String CATEGORY = "Brick Breaker";
+
+    // flip on and off as recordings start and stop
+    public static final EventType TICK = EventType.getEventType(Tick.class);
+    public static final EventType BRICK_COLLISION = EventType.getEventType(BrickCollision.class);
+    public static final EventType SOUND_PLAY = EventType.getEventType(SoundPlay.class);
+
+    private GameEvents() {}
+
+    @Name("brickbreaker.Tick")
+    @Label("Game Tick")
+    @Description("One fixed simulation tick")
+    @Category({CATEGORY, "Simulation"})
+    @Threshold("1 ms")
+    @StackTrace(false)
+    public static class Tick extends Event {
+        @Label("Tick")
+        public long tick;
+        @Label("Wave")
+        public int wave;
+        @Label("Keys")
+        public int keys;
+        @Label("Bricks Left")
+        public int bricksLeft;
+        @Label("Falling Power-ups")
+        public int powerUps;
+    }
+
+    @Name("brickbreaker.BrickCollision")
+    @Label("Brick Collision")
+    @Description("Sweeping every ball through the bricks for one tick")
+    @Category({CATEGORY, "Simulation"})
+    @Threshold("200 us")
+    @StackTrace(false)
+    public static class BrickCollision extends Event {
+        @Label("Hit")
+        public boolean hit;
+        @Label("Balls")
+        public int balls;
+        @Label("Bricks Hit")
+        public int bricksHit;
+        @Label("Bricks Tested")
+        public int bricksTested;
+    }
+
+    @Name("brickbreaker.WaveSetup")
+    @Label("Wave Setup")
+    @Description("Laying out the bricks for a new wave")
+    @Category({CATEGORY, "Simulation"})
+    @Threshold("2 ms")
+    @StackTrace(false)
+    public static class WaveSetup extends Event {
+        @Label("Wave")
+        public int wave;
+        @Label("Rows")
+        public int rows;
+        @Label("Columns")
+        public int cols;
+        @Label("Bricks Created")
+        public int bricksCreated;
+    }
+
+    @Name("brickbreaker.SoundPlay")
+    @Label("Sound Play")
+    @Description("Starting a sound effect or a line of dialogue")
+    @Category({CATEGORY, "Audio"})
+    @Threshold("1 ms")
+    public static class SoundPlay extends Event {
+        @Label("File")
+        public String file;
+        @Label("Found")
+        public boolean found;
+    }
+
+    @Name("brickbreaker.AssetLoad")
+    @Label("Asset Load")
+    @Description("Reading and decoding an image or sound file")
+    @Category({CATEGORY, "Assets"})
+    @Threshold("1 ms")
+    public static class AssetLoad extends Event {
+        @Label("File")
+        public String file;
+        @Label("Kind")
+        public String kind;
+        @Label("Found")
+        public boolean found;
+    }
+
+    @Name("brickbreaker.IntroPage")
+    @Label("Intro Page")
+    @Description("Showing a page of the intro dialogue, the duration is how long the click waited for it")
+    @Category({CATEGORY, "Assets"})
+    @StackTrace(false)
+    public static class IntroPage extends Event {
+        @Label("Page")
+        public int page;
+        @Label("File")
+        public String file;
+        @Label("Decode Time")
+        @Timespan(Timespan.NANOSECONDS)
+        public long decodeTime;
+        @Label("Ready Ahead")
+        @Description("How long before the click the page was ready, negative when the click waited")
+        @Timespan(Timespan.NANOSECONDS)
+        public long readyAhead;
+        @Label("Frames")
+        public int frames;
+        @Label("Sound Ready")
+        public boolean soundReady;
+    }
+}
@@ -0,0 +1,56 @@
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// the keyboard's side of the controls, set from key events and read once per tick
+public class GameInput implements PaddleController {
+    // one bit per key in what poll() returns, this is also how replays store input
+    public static final int LEFT = 1;
+    public static final int RIGHT = 2;
+    public static final int LAUNCH = 4;
+    public static final int PAUSE = 8;
+
+    // keys that are held down
+    private volatile boolean left;
+    private volatile boolean right;
+
+    // presses that happen once and are used up by the next tick. key events set them on the
+    // event thread while the game loop thread may be using them up, so taking one is a single
+    // getAndSet and a press that lands in between is never lost
+    private final AtomicBoolean launchPressed = new AtomicBoolean();
+    private final AtomicBoolean pausePressed = new AtomicBoolean();
+
+    public void setLeft(boolean left) { this.left = left; }
+    public void setRight(boolean right) { this.right = right; }
+    public void pressLaunch() { launchPressed.set(true); }
+    public void pressPause() { pausePressed.set(true); }
+
+    public boolean isLeft() { return left; }
+    public boolean isRight() { return right; }
+
+    // returns true once per press
+    public boolean consumeLaunch() {
+        return launchPressed.getAndSet(false);
+    }
+
+    public boolean consumePause() {
+        return pausePressed.getAndSet(false);
+    }
+
+    // everything one tick needs as bits, using up the presses
+    public int poll() {
+        return (left ? LEFT : 0) | (right ? RIGHT : 0)
+             | (consumeLaunch() ? LAUNCH : 0) | (consumePause() ? PAUSE : 0);
+    }
+
+    @Override
+    public int nextKeys(GameSimulation simulation) {
+        return poll();
+    }
+
+    // forget everything, used when a new game starts
+    public void clear() {
+        left = false;
+        right = false;
+        launchPressed.set(false);
+        pausePressed.set(false);
+    }
+}
@@ -0,0 +1,146 @@
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+
+public class GameLoop implements Runnable {
+    // give up the rest of the wait by yielding once we are this close to the next frame
+    private static final long SPIN_NANOS = 2_000_000L;
+
+    // what the loop draws into its buffers
+    public interface Renderer {
+        void render(Graphics g, double alpha);
+    }
+
+    private final GameSimulation simulation;
+    private final PaddleController controller;
+    private final Canvas canvas;
+    private final Renderer renderer;
+    private final int bufferCount;
+    private long frameNanos;
+
+    private FrameStats stats;       // optional, told how long each part of a frame took
+
+    private Thread thread;
+    private volatile boolean running;
+
+    public GameLoop(GameSimulation simulation, PaddleController controller, Canvas canvas, Renderer renderer,
+                    int targetFps, int bufferCount) {
+        this.simulation = simulation;
+        this.controller = controller;
+        this.canvas = canvas;
+        this.renderer = renderer;
+        this.bufferCount = bufferCount;
+        setTargetFps(targetFps);
+    }
+
+    public void setStats(FrameStats stats) {
+        this.stats = stats;
+    }
+
+    public void setTargetFps(int targetFps) {
+        frameNanos = 1_000_000_000L / Math.max(1, targetFps);
+    }
+
+    // starts the loop thread, returns false if the canvas can't be buffered so the caller can fall back
+    public boolean start() {
+        if (running) {
+            return true;
+        }
+        try {
+            canvas.createBufferStrategy(bufferCount);
+        } catch (Exception e) {
+            System.out.println("error creating buffer strategy: " + e.getMessage());
+            return false;
+        }
+
+        running = true;
+        thread = new Thread(this, "game loop");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    public void stop() {
+        running = false;
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        thread = null;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void run() {
+        long lastTime = System.nanoTime();
+        long nextFrame = lastTime;
+
+        while (running) {
+            if (stats != null) {
+                stats.beginFrame();
+            }
+            long now = System.nanoTime();
+            double alpha;
+            synchronized (simulation) {
+                simulation.step((now - lastTime) / 1e9, controller);
+                alpha = simulation.getInterpolationAlpha();
+            }
+            lastTime = now;
+            long simulated = System.nanoTime();
+
+            renderFrame(alpha);
+            if (stats != null) {
+                stats.addSimulation(simulated - now);
+                stats.addRender(System.nanoTime() - simulated);
+            }
+
+            // sleep most of the way to the next frame, then yield until it is due
+            nextFrame += frameNanos;
+            long remaining = nextFrame - System.nanoTime();
+            if (remaining < -frameNanos) {
+                // we fell far behind, don't try to catch up with a burst of frames
+                nextFrame = System.nanoTime();
+                continue;
+            }
+            if (remaining > SPIN_NANOS) {
+                try {
+                    Thread.sleep((remaining - SPIN_NANOS) / 1_000_000L);
+                } catch (InterruptedException e) {
+                    running = false;
+                }
+            }
+            while (System.nanoTime() < nextFrame) {
+                Thread.yield();
+            }
+        }
+    }
+
+    private void renderFrame(double alpha) {
+        BufferStrategy strategy = canvas.getBufferStrategy();
+        if (strategy == null) {
+            return;
+        }
+
+        // buffers can be lost at any time (e.g. the window is minimized) so redraw until one sticks
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                try {
+                    synchronized (simulation) {
+                        renderer.render(g, alpha);
+                    }
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+
+        Toolkit.getDefaultToolkit().sync();
+    }
+}
@@ -2,94 +2,183 @@ import javax.swing.Timer;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.*;
-import javax.sound.sampled.*;
-import java.io.File;
 
 public class GamePlayScreen extends GameScreen {
-    // constants for game elements
-    private static final int GRID_ROWS = 3;
-    private static final int GRID_COLS = 7;
-    private static final double BRICK_WIDTH = 59.7;
-    private static final double BRICK_HEIGHT = 29.9;
-    private static final double PADDLE_WIDTH = 122.3;
-    private static final double PADDLE_HEIGHT = 19.3;
-    private static final double BALL_SIZE = 20.1;
-    private static final double BRICK_SPACING_X = 15.0; // increased horizontal spacing
-    private static final double BRICK_SPACING_Y = 10.0; // increased vertical spacing
-    
     // debug mode flag
     private boolean showDebugBounds = false;
     
+    // frame timings, always recorded (it's cheap) and shown with the debug info
+    private FrameStats frameStats = new FrameStats();
+    private static final Font PERF_FONT = new Font("Monospaced", Font.PLAIN, 11);
+    private static final Color PERF_SHADE = new Color(0, 0, 0, 170);
+    private static final Color PERF_OK = new Color(80, 220, 80);
+    private static final Color PERF_SLOW = new Color(240, 200, 40);
+    private static final Color PERF_BAD = new Color(240, 60, 60);
+    private static final int PERF_WIDTH = FrameStats.FRAMES + 40;
+    private static final int PERF_HEIGHT = 160;
+    private static final int PERF_GRAPH_HEIGHT = 60;
+    private static final long PERF_GRAPH_NANOS = 33_333_333L;  // top of the graph, two frames at 60 fps
+    private SpriteCache.Sprite perfShade;
+    private static final long PERF_TEXT_NANOS = 250_000_000L;    // the numbers are redone 4 times a second
+    private final String[] perfText = new String[5];
+    private long perfTextAt;
+    
     // game images
-    private ImageIcon backgroundImage;
-    private ImageIcon heartImage;
+    public static final String[] PICTURES = { "GamePlayScreen.png" };
+    private LayerCache background;
+    
+    // the background with the bricks on top, painted once per wave and then only where a
+    // brick was hit or broken. playfieldX/Y is the camera position it was painted at
+    private LayerCache playfield;
+    private int playfieldX, playfieldY;
+    private Rectangle playfieldClip = new Rectangle();
+    private SpriteCache.Sprite heartSprite;
     
     // game state variables
     private String gameMode;
-    private int score = 0;
-    private int lives = 3;
-    private boolean gameStarted = false;
-    private boolean paused = false;
-    private boolean gameOver = false;
-    private int currentWave = 1;
     
     // game timers
     private Timer gameTimer;
     private Timer animationTimer;
     private int timeRemaining = 60; // for timed mode
-    
-    // game objects
-    private Paddle paddle;
-    private Ball ball;
-    private Brick[][] bricks;
-    private ArrayList<PowerUp> fallingPowerUps;
-    
-    // fruit collection tracking
-    private int applesCollected = 0;
-    private int orangesCollected = 0;
-    private int pearsCollected = 0;
-    private int blueberriesCollected = 0;
-    
-    private Random random;
+    private long lastFrameTime;
+    
+    // the game rules live in the simulation, this screen only draws it and feeds it input
+    private GameSimulation simulation;
+    private GameInput input;
+    private PaddleController controller;    // the keyboard, or the autopilot for soak tests
+    
+    // -Dbrickbreaker.record=FILE saves each game's input there for ReplayPlayer, the last game wins
+    private String recordFile = System.getProperty("brickbreaker.record");
+    private ReplayRecorder recorder;
+    
+    // optional active rendering: a loop thread draws into a buffered canvas instead of repaint()
+    private boolean activeRendering;
+    private Canvas canvas;
+    private GameLoop gameLoop;
+    
+    // top-left corner of the view into the play area, only moves on a large board
+    private int cameraX, cameraY;
+    
+    // wave message drawn over the game for a moment after each wave
+    private String levelUpText;
+    private long levelUpUntil;
+    private static final Font LEVEL_UP_FONT = new Font("Arial", Font.BOLD, 36);
+    
+    // fonts and colors used every frame, made once
+    private static final Font SCORE_FONT = new Font("Arial", Font.BOLD, 28);
+    private static final Font BANNER_FONT = new Font("Arial", Font.BOLD, 40);
+    private static final Font HINT_FONT = new Font("Arial", Font.PLAIN, 20);
+    private static final Color START_SHADE = new Color(0, 0, 0, 100);
+    private static final Color PAUSE_SHADE = new Color(0, 0, 0, 150);
+    private static final String START_TEXT = "Press SPACE to Start";
+    private static final String PAUSE_TEXT = "PAUSED";
+    private static final String PAUSE_HINT_TEXT = "Press ESC to resume";
+    
+    // text that changes now and then, only rebuilt when its value does
+    private int shownScore = Integer.MIN_VALUE;
+    private String scoreText;
+    private int scoreWidth;
+    private int shownWave = -1;
+    private String waveText;
+    private FontMetrics bannerMetrics;
+    private FontMetrics scoreMetrics;
+    private FontMetrics levelUpMetrics;
+    
+    // see-through overlays, made again only when the screen size changes
+    private SpriteCache.Sprite startShade;
+    private SpriteCache.Sprite pauseShade;
+    private SpriteCache.Sprite levelUpShade;
+    private int shadeWidth, shadeHeight;
+    
+    // what the last frame showed, so the next repaint only covers what moved or changed.
+    // areas are in screen coordinates
+    private static final int HUD_HEIGHT = 60;
+    private Rectangle ballArea = new Rectangle();
+    private Rectangle paddleArea = new Rectangle();
+    private Rectangle powerUpArea = new Rectangle();
+    private Rectangle movedArea = new Rectangle();      // scratch for where something is now
+    private Rectangle brickArea = new Rectangle();      // bricks changed since the last repaint
+    private boolean bricksChanged;
+    private int paintedScore, paintedLives;
+    private int paintedState = -1;
     
     public GamePlayScreen(BrickBreakerGame game) {
         super(game);
         
-        try {
-            backgroundImage = new ImageIcon("GamePlayScreen.png");
-            heartImage = new ImageIcon("Heart.png");
-        } catch (Exception e) {
-            System.out.println("error loading game images: " + e.getMessage());
-            e.printStackTrace();
-            backgroundImage = null;
-            heartImage = null;
-        }
-        
-        random = new Random();
-        fallingPowerUps = new ArrayList<>();
-        
-        // initialize game objects with exact dimensions
-        int screenWidth = 600;
-        int paddleX = (screenWidth - (int)PADDLE_WIDTH) / 2;
-        int paddleY = 580;
+        background = LayerCache.forPicture(addPicture(PICTURES[0]), getBackground());
+        playfield = new LayerCache((g, width, height) -> {
+            background.draw(g, this);
+            // only the bricks under the part being painted again are drawn
+            playfieldClip.setBounds(0, 0, width, height);
+            Rectangle clip = g.getClipBounds(playfieldClip);
+            g.translate(-playfieldX, -playfieldY);
+            simulation.getBricks().draw(g, playfieldX + clip.x, playfieldY + clip.y,
+                                        playfieldX + clip.x + clip.width, playfieldY + clip.y + clip.height);
+        });
         
-        paddle = new Paddle(paddleX, paddleY, (int)PADDLE_WIDTH, (int)PADDLE_HEIGHT, screenWidth);
-        ball = new Ball(paddleX + (int)(PADDLE_WIDTH/2), paddleY - (int)BALL_SIZE, (int)(BALL_SIZE/2));
+        input = new GameInput();
+        // -Dbrickbreaker.autopilot=true plays by itself, ESC still pauses
+        controller = Boolean.getBoolean("brickbreaker.autopilot") ? new AutopilotController(true, input) : input;
+        // -Dbrickbreaker.board=ROWSxCOLS plays on a bigger, scrolling board, e.g. 100x200
+        simulation = createSimulation(System.getProperty("brickbreaker.board"));
+        simulation.setListener(new GameSimulation.Listener() {
+            @Override
+            public void onSound(String filename) {
+                playSoundEffect(filename);
+            }
+            
+            @Override
+            public void onWaveStarted(int wave) {
+                playfield.invalidate();
+                displayLevelUpMessage(wave);
+            }
+            
+            @Override
+            public void onGameOver() {
+                // the game loop thread can end the game, but changing screens has to happen on the EDT
+                if (SwingUtilities.isEventDispatchThread()) {
+                    endGame();
+                } else {
+                    SwingUtilities.invokeLater(() -> endGame());
+                }
+            }
+        });
+        simulation.getBricks().getField().addListener(new BrickField.Listener() {
+            @Override
+            public void onBrickHit(int cell, FruitKind kind) {
+                brickChanged(cell);
+            }
+            
+            @Override
+            public void onBrickBroken(int cell, FruitKind kind) {
+                brickChanged(cell);
+            }
+        });
         
-        // create the array for bricks
-        bricks = new Brick[GRID_ROWS][GRID_COLS];
+        // -Dbrickbreaker.activeRendering=true turns on the buffered game loop
+        activeRendering = Boolean.getBoolean("brickbreaker.activeRendering");
+        if (activeRendering) {
+            canvas = new Canvas();
+            canvas.setIgnoreRepaint(true);
+            canvas.setFocusable(false); // keys keep going to this panel
+            add(canvas);
+            gameLoop = new GameLoop(simulation, controller, canvas, (g, alpha) -> renderFrame(g, alpha),
+                                    Integer.getInteger("brickbreaker.fps", 60),
+                                    Integer.getInteger("brickbreaker.buffers", 2));
+            gameLoop.setStats(frameStats);
+        }
         
         // set up game timers
         gameTimer = new Timer(1000, new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                if (gameStarted && !paused && !gameOver) {
+                if (simulation.isGameStarted() && !simulation.isPaused() && !simulation.isGameOver()) {
                     if (gameMode.equals("timed")) {
                         timeRemaining--;
                         if (timeRemaining <= 0) {
                             gameTimer.stop();
-                            endGame();
+                            simulation.endGame();
                         }
                     }
                 }
@@ -99,10 +188,13 @@ public class GamePlayScreen extends GameScreen {
         animationTimer = new Timer(1000/60, new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                if (gameStarted && !paused && !gameOver) {
-                    updateGame();
-                }
-                repaint();
+                // run however many fixed ticks fit in the time since the last frame
+                frameStats.beginFrame();
+                long now = System.nanoTime();
+                simulation.step((now - lastFrameTime) / 1e9, controller);
+                lastFrameTime = now;
+                frameStats.addSimulation(System.nanoTime() - now);
+                repaintChanged();
             }
         });
         
@@ -116,14 +208,15 @@ public class GamePlayScreen extends GameScreen {
                 // d key to toggle debug mode
                 if (keyCode == KeyEvent.VK_D) {
                     showDebugBounds = !showDebugBounds;
+                    frameStats.setDetailed(showDebugBounds);
                     System.out.println("debug bounds: " + (showDebugBounds ? "on" : "off"));
                     repaint();
                     return;
                 }
                 
                 // press space to start game
-                if (keyCode == KeyEvent.VK_SPACE && !gameStarted) {
-                    startGame();
+                if (keyCode == KeyEvent.VK_SPACE) {
+                    input.pressLaunch();
                     return;
                 }
                 
@@ -138,26 +231,23 @@ public class GamePlayScreen extends GameScreen {
         });
     }
     
-    // method to play sound effects
-    private void playSoundEffect(String filename) {
-        try {
-            File audioFile = new File(filename);
-            if (audioFile.exists()) {
-                AudioInputStream audioStream = AudioSystem.getAudioInputStream(audioFile);
-                Clip clip = AudioSystem.getClip();
-                clip.open(audioStream);
-                clip.start();
-            } else {
-                System.out.println("sound file not found: " + filename);
+    private static GameSimulation createSimulation(String board) {
+        if (board != null) {
+            try {
+                String[] size = board.toLowerCase().split("x");
+                return new GameSimulation(600, 600, Integer.parseInt(size[0].trim()), Integer.parseInt(size[1].trim()));
+            } catch (Exception e) {
+                System.out.println("error reading board size: " + board);
             }
-        } catch (Exception e) {
-            System.out.println("error playing sound: " + e.getMessage());
         }
+        return new GameSimulation(600, 600);
     }
     
-    private void startGame() {
-        gameStarted = true;
-        ball.launch();
+    // method to play sound effects, sounds are preloaded by the game's sound bank
+    private void playSoundEffect(String filename) {
+        long start = System.nanoTime();
+        game.getSoundBank().play(filename);
+        frameStats.addAudio(System.nanoTime() - start);
     }
     
     @Override
@@ -167,42 +257,50 @@ public class GamePlayScreen extends GameScreen {
         resetGame();
         
         // start animation timer but game physics won't update until space is pressed
-        animationTimer.start();
+        lastFrameTime = System.nanoTime();
+        if (activeRendering) {
+            canvas.setBounds(0, 0, getWidth(), getHeight());
+            if (!gameLoop.start()) {
+                // no buffer strategy available, fall back to the repaint path
+                activeRendering = false;
+                remove(canvas);
+                animationTimer.start();
+            }
+        } else {
+            animationTimer.start();
+        }
         // only using classic mode for now
         // if (gameMode.equals("timed")) {
         //     timeRemaining = 60;
         //     gameTimer.start();
         // }
     }
-    
+
+    // waits for the sprite atlas the startup loader is building, the first time a game is set up
+    private void pickUpAssets() {
+        if (heartSprite == null) {
+            AssetLoader.await(game.getSpritesLoad());
+            heartSprite = SpriteCache.get().getSprite("Heart.png", 25, 25);
+        }
+    }
+
     public void resetGame() {
-        score = 0;
-        lives = 3;
-        paused = false;
-        gameOver = false;
-        gameStarted = false;
-        currentWave = 1;
-        
-        // reset fruit counts
-        applesCollected = 0;
-        orangesCollected = 0;
-        pearsCollected = 0;
-        blueberriesCollected = 0;
-        
-        // clear any power-ups
-        fallingPowerUps.clear();
-        
-        // reset paddle position
-        int screenWidth = getWidth();
-        int paddleX = (screenWidth - (int)PADDLE_WIDTH) / 2;
-        int paddleY = 550;
-        paddle.reset(paddleX, paddleY);
-        
-        // reset ball position (on paddle)
-        ball.reset(paddleX + (int)(PADDLE_WIDTH/2), paddleY - (int)BALL_SIZE);
-        
-        // initialize brick grid for the first wave
-        setupBrickGrid();
+        pickUpAssets();
+        levelUpUntil = 0;
+        paintedState = -1;
+        playfield.invalidate();
+        input.clear();
+        synchronized (simulation) {
+            // a game left before it ended is saved as far as it got
+            stopRecording();
+            
+            // the play area is whatever size this screen has been given
+            if (getWidth() > 0 && getHeight() > 0) {
+                simulation.setSize(getWidth(), getHeight());
+            }
+            simulation.reset();
+            startRecording();
+        }
         
         // make sure timer is stopped if previously running
         gameTimer.stop();
@@ -210,337 +308,152 @@ public class GamePlayScreen extends GameScreen {
         repaint();
     }
     
-    private void setupBrickGrid() {
-        // calculate total grid width including spacing
-        double totalGridWidth = GRID_COLS * BRICK_WIDTH + (GRID_COLS - 1) * BRICK_SPACING_X;
-        int startX = (int)((getWidth() - totalGridWidth) / 2);
-        int startY = 100; // top position for the grid
-        
-        for (int row = 0; row < GRID_ROWS; row++) {
-            for (int col = 0; col < GRID_COLS; col++) {
-                int x = startX + (int)(col * (BRICK_WIDTH + BRICK_SPACING_X));
-                int y = startY + (int)(row * (BRICK_HEIGHT + BRICK_SPACING_Y));
-                
-                // create a brick with probability based on current wave
-                Brick brick = createBrickForWave(x, y, (int)BRICK_WIDTH, (int)BRICK_HEIGHT);
-                bricks[row][col] = brick;
+    // repaints only what changed since the last frame: the ball, paddle and power-ups where
+    // they were and where they are now, any bricks that were hit, and the score and hearts
+    // when they change. paused or waiting for space nothing moves, so nothing is painted
+    private void repaintChanged() {
+        boolean running = simulation.isGameStarted() && !simulation.isPaused() && !simulation.isGameOver();
+        int state = (simulation.isGameStarted() ? 1 : 0) | (simulation.isPaused() ? 2 : 0)
+                  | (simulation.isGameOver() ? 4 : 0) | (System.currentTimeMillis() < levelUpUntil ? 8 : 0);
+        // overlays coming and going, debug text and a scrolling board change the whole screen
+        boolean whole = state != paintedState || showDebugBounds || (running && simulation.isLargeBoard());
+        paintedState = state;
+        
+        // all the balls together, each drawn somewhere between its last two positions
+        movedArea.setBounds(0, 0, 0, 0);
+        BallSet balls = simulation.getBalls();
+        int radius = balls.getRadius();
+        boolean ballsMoved = false;
+        for (int i = 0; i < balls.getCount(); i++) {
+            double previousX = balls.getPreviousX(i);
+            double previousY = balls.getPreviousY(i);
+            int x = (int)Math.min(previousX, balls.getX(i)) - radius - 1;
+            int y = (int)Math.min(previousY, balls.getY(i)) - radius - 1;
+            int width = (int)Math.abs(balls.getX(i) - previousX) + radius * 2 + 3;
+            int height = (int)Math.abs(balls.getY(i) - previousY) + radius * 2 + 3;
+            if (movedArea.isEmpty()) {
+                movedArea.setBounds(x, y, width, height);
+            } else {
+                SwingUtilities.computeUnion(x, y, width, height, movedArea);
             }
+            ballsMoved |= previousX != balls.getX(i) || previousY != balls.getY(i);
         }
-    }
-    
-    private Brick createBrickForWave(int x, int y, int width, int height) {
-        // adjust probabilities based on wave number
-        double rand = random.nextDouble();
-        
-        // as waves progress, increase probability of harder bricks
-        double appleProb = Math.max(0.1, 0.5 - (currentWave * 0.05));
-        double orangeProb = Math.min(0.4, 0.2 + (currentWave * 0.02));
-        double pearProb = Math.min(0.2, 0.1 + (currentWave * 0.01));
-        double blueberryProb = Math.min(0.2, 0.05 + (currentWave * 0.015));
-        double heartProb = 0.05;
-        double plusProb = 0.05;
-        
-        // create appropriate brick type
-        if (rand < appleProb) {
-            return new AppleBrick(x, y, width, height);
-        } else if (rand < appleProb + orangeProb) {
-            return new OrangeBrick(x, y, width, height);
-        } else if (rand < appleProb + orangeProb + pearProb) {
-            return new PearBrick(x, y, width, height);
-        } else if (rand < appleProb + orangeProb + pearProb + blueberryProb) {
-            return new BlueberryBrick(x, y, width, height);
-        } else if (rand < appleProb + orangeProb + pearProb + blueberryProb + heartProb) {
-            return new HeartBrick(x, y, width, height);
-        } else if (rand < appleProb + orangeProb + pearProb + blueberryProb + heartProb + plusProb) {
-            return new PlusBrick(x, y, width, height);
-        } else {
-            return new PeachBrick(x, y, width, height);
-        }
-    }
-    
-    private void updateGame() {
-        // move the paddle
-        paddle.move();
-        
-        // move the ball
-        ball.move();
-        
-        // check ball collisions with walls
-        checkWallCollisions();
-        
-        // check ball collision with paddle
-        checkPaddleCollision();
-        
-        // check ball collision with bricks
-        checkBrickCollisions();
-        
-        // check if ball is lost (falls below screen)
-        if (ball.getY() > getHeight()) {
-            handleBallLost();
-        }
-        
-        // update falling power-ups
-        updatePowerUps();
-        
-        // check if all bricks are broken for next wave
-        checkWaveCompletion();
-    }
-    
-    private void checkWallCollisions() {
-        // left and right walls
-        if (ball.getX() - ball.getRadius() <= 0 || 
-            ball.getX() + ball.getRadius() >= getWidth()) {
-            ball.reverseX();
-        }
-        
-        // top wall
-        if (ball.getY() - ball.getRadius() <= 0) {
-            ball.reverseY();
-        }
-    }
-    
-    private void checkPaddleCollision() {
-        if (ball.getBounds().intersects(paddle.getCollisionBounds())) {
-            // calculate bounce angle based on where ball hit the paddle
-            double paddleCenter = paddle.getX() + paddle.getWidth() / 2;
-            double ballDistFromCenter = ball.getX() - paddleCenter;
-            double normalizedDist = ballDistFromCenter / (paddle.getWidth() / 2);
-            
-            // set new ball direction (angle based on hit position)
-            double ballSpeed = Math.sqrt(ball.getDx() * ball.getDx() + ball.getDy() * ball.getDy());
-            double angle = normalizedDist * (Math.PI / 4); // max 45 degree bounce
-            
-            ball.setDx(ballSpeed * Math.sin(angle));
-            ball.setDy(-ballSpeed * Math.cos(angle));
-            
-            // ensure ball is above the paddle to prevent multiple collisions
-            double newY = paddle.getY() - ball.getRadius() - 1;
-            ball.setPosition((int)ball.getX(), (int)newY);
-        }
-    }
-    
-    private void checkBrickCollisions() {
-        // check each brick
-        for (int row = 0; row < GRID_ROWS; row++) {
-            for (int col = 0; col < GRID_COLS; col++) {
-                Brick brick = bricks[row][col];
-                
-                // skip broken bricks
-                if (brick != null && !brick.isBroken()) {
-                    if (ball.getBounds().intersects(brick.getBounds())) {
-                        // handle brick hit
-                        handleBrickHit(brick);
-                        
-                        // determine bounce direction (simplified)
-                        Rectangle brickBounds = brick.getBounds();
-                        Rectangle ballBounds = ball.getBounds();
-                        
-                        // calculate intersection to determine collision side
-                        Rectangle intersection = ballBounds.intersection(brickBounds);
-                        
-                        if (intersection.width > intersection.height) {
-                            // top or bottom collision
-                            ball.reverseY();
-                        } else {
-                            // left or right collision
-                            ball.reverseX();
-                        }
-                        
-                        // only hit one brick per frame for simplicity
-                        return;
-                    }
-                }
+        repaintMoved(ballArea, whole, ballsMoved);
+        
+        // the paddle with its glow and the mega basket seconds above it
+        Paddle paddle = simulation.getPaddle();
+        int left = Math.min(simulation.getPreviousPaddleX(), paddle.getX());
+        int right = Math.max(simulation.getPreviousPaddleX(), paddle.getX()) + paddle.getWidth();
+        movedArea.setBounds(left - 5, paddle.getY() - 20, right - left + 11, paddle.getHeight() + 26);
+        // the mega basket seconds count down even when the basket stands still
+        repaintMoved(paddleArea, whole, simulation.getPreviousPaddleX() != paddle.getX() || paddle.isMegaBasketActive());
+        
+        // all the falling power-ups together, each drawn up to one step above where it is
+        movedArea.setBounds(0, 0, 0, 0);
+        PowerUpPool powerUps = simulation.getPowerUps();
+        for (int i = 0; i < powerUps.getCount(); i++) {
+            int top = powerUps.getY(i) - powerUps.getSpeed(i) - 1;
+            int height = PowerUpPool.SIZE + powerUps.getSpeed(i) + 2;
+            if (movedArea.isEmpty()) {
+                movedArea.setBounds(powerUps.getX(i) - 1, top, PowerUpPool.SIZE + 2, height);
+            } else {
+                SwingUtilities.computeUnion(powerUps.getX(i) - 1, top, PowerUpPool.SIZE + 2, height, movedArea);
             }
         }
-    }
-    
-    private void handleBrickHit(Brick brick) {
-        String fruitType = brick.getFruitType();
+        repaintMoved(powerUpArea, whole, powerUps.getCount() > 0);
         
-        // play sound based on brick type
-        if (fruitType.equals("peach")) {
-            playSoundEffect("PeachSound.wav");
-        } else {
-            playSoundEffect("BrickSound.wav");
+        if (bricksChanged) {
+            bricksChanged = false;
+            if (!whole) {
+                repaint(brickArea);
+            }
         }
         
-        brick.hit();
-        
-        if (brick.isBroken()) {
-            // add points based on brick type
-            score += brick.getPoints();
-            
-            // check if this brick should drop a power-up or fruit (20% chance)
-            if (brick.shouldDropPowerUp()) {
-                // calculate center of brick for power-up spawn
-                int powerUpX = brick.getX() + brick.getWidth() / 2 - 15; // center and adjust for power-up width
-                int powerUpY = brick.getY() + brick.getHeight() / 2 - 15; // center and adjust for power-up height
-                
-                // create appropriate power-up based on brick type
-                if (fruitType.equals("heart")) {
-                    // heart brick guarantees a heart power-up
-                    fallingPowerUps.add(new PowerUp(powerUpX, powerUpY, 30, 30, PowerUp.EXTRA_LIFE));
-                } else if (fruitType.equals("plus")) {
-                    // plus brick guarantees a mega basket power-up
-                    fallingPowerUps.add(new PowerUp(powerUpX, powerUpY, 30, 30, PowerUp.MEGA_BASKET));
-                } else if (!fruitType.equals("peach")) {
-                    // all other fruit bricks (except peach) drop their corresponding fruit
-                    fallingPowerUps.add(new PowerUp(powerUpX, powerUpY, 30, 30, fruitType));
-                }
+        if (simulation.getScore() != paintedScore || simulation.getLives() != paintedLives) {
+            paintedScore = simulation.getScore();
+            paintedLives = simulation.getLives();
+            if (!whole) {
+                repaint(0, 0, getWidth(), HUD_HEIGHT);
             }
         }
-    }
-    
-    private void handlePowerUpCollected(PowerUp powerUp) {
-        String type = powerUp.getType();
         
-        switch (type) {
-            case PowerUp.EXTRA_LIFE:
-                if (lives < 3) {
-                    lives++;
-                }
-                playSoundEffect("HeartSound.wav");
-                break;
-                
-            case PowerUp.MEGA_BASKET:
-                paddle.activateMegaBasket(600);
-                playSoundEffect("MegaBasketSound.wav");
-                break;
-                
-            case "apple":
-                applesCollected++;
-                score += 10;
-                playSoundEffect("FruitSound.wav");
-                break;
-                
-            case "orange":
-                orangesCollected++;
-                score += 20;
-                playSoundEffect("FruitSound.wav");
-                break;
-                
-            case "pear":
-                pearsCollected++;
-                score += 30;
-                playSoundEffect("FruitSound.wav");
-                break;
-                
-            case "blueberry":
-                blueberriesCollected++;
-                score += 30;
-                playSoundEffect("FruitSound.wav");
-                break;
-                
-            case "heart":
-                if (lives < 3) {
-                    lives++;
-                }
-                playSoundEffect("HeartSound.wav");
-                break;
-                
-            case "plus":
-                paddle.activateMegaBasket(600);
-                playSoundEffect("MegaBasketSound.wav");
-                break;
+        if (whole) {
+            repaint();
         }
     }
     
-    private void updatePowerUps() {
-        Iterator<PowerUp> iterator = fallingPowerUps.iterator();
-        while (iterator.hasNext()) {
-            PowerUp powerUp = iterator.next();
-            powerUp.move();
-            
-            // check if power-up is collected - use the collection bounds instead of full bounds
-            if (powerUp.getBounds().intersects(paddle.getCollectionBounds())) {
-                handlePowerUpCollected(powerUp);
-                iterator.remove();
-            }
-            // check if power-up falls off screen
-            else if (powerUp.getY() > getHeight()) {
-                iterator.remove();
+    // repaints where something was and where it is now (movedArea), then remembers where it is.
+    // a move back and forth covers the same area twice, so the caller says whether it moved
+    private void repaintMoved(Rectangle lastArea, boolean whole, boolean moved) {
+        movedArea.translate(-cameraX, -cameraY);
+        if (!whole && (moved || !movedArea.equals(lastArea))) {
+            if (lastArea.isEmpty()) {
+                repaint(movedArea);
+            } else if (movedArea.isEmpty()) {
+                repaint(lastArea);
+            } else {
+                repaint(SwingUtilities.computeUnion(movedArea.x, movedArea.y, movedArea.width, movedArea.height,
+                                                    lastArea));
             }
         }
+        lastArea.setBounds(movedArea);
     }
     
-    private void handleBallLost() {
-        lives--;
-        
-        if (lives <= 0) {
-            endGame();
+    // a brick was hit or broken, paint just its cell again
+    private void brickChanged(int cell) {
+        BrickGrid bricks = simulation.getBricks();
+        int x = bricks.getX(cell) - playfieldX;
+        int y = bricks.getY(cell) - playfieldY;
+        // the fallback outline reaches one pixel past the brick
+        int width = bricks.getBrickWidth() + 1;
+        int height = bricks.getBrickHeight() + 1;
+        playfield.invalidate(x, y, width, height);
+        if (bricksChanged) {
+            SwingUtilities.computeUnion(x, y, width, height, brickArea);
         } else {
-            int paddleX = paddle.getX();
-            ball.reset(paddleX + paddle.getWidth()/2, paddle.getY() - (int)BALL_SIZE);
-            gameStarted = false;
+            brickArea.setBounds(x, y, width, height);
+            bricksChanged = true;
         }
     }
     
-    private void checkWaveCompletion() {
-        boolean allBroken = true;
-        
-        // checking if any bricks still exist
-        for (int row = 0; row < GRID_ROWS; row++) {
-            for (int col = 0; col < GRID_COLS; col++) {
-                Brick brick = bricks[row][col];
-                if (brick != null && !brick.isBroken()) {
-                    allBroken = false;
-                    break;
-                }
-            }
+    private void startRecording() {
+        if (recordFile == null) {
+            return;
         }
-        
-        if (allBroken) {
-            // next wave starts
-            startNextWave();
+        try {
+            recorder = new ReplayRecorder(recordFile, simulation);
+            simulation.setRecorder(recorder);
+        } catch (Exception e) {
+            System.out.println("error starting replay recording: " + e.getMessage());
         }
     }
     
-    private void startNextWave() {
-        currentWave++;
-        
-        // resetting the ball and wait for user to pres the space bar
-        int paddleX = paddle.getX();
-        ball.reset(paddleX + paddle.getWidth()/2, paddle.getY() - (int)BALL_SIZE);
-        gameStarted = false;
-        
-        // new bricks
-        setupBrickGrid();
-        
-        // level up msg
-        displayLevelUpMessage();
+    private void stopRecording() {
+        if (recorder != null) {
+            simulation.setRecorder(null);
+            recorder.close(simulation);
+            recorder = null;
+        }
     }
     
-    private void displayLevelUpMessage() {
-        final JLabel levelUpLabel = new JLabel("Wave " + currentWave + "!");
-        levelUpLabel.setFont(new Font("Arial", Font.BOLD, 36));
-        levelUpLabel.setForeground(Color.YELLOW);
-        levelUpLabel.setBackground(new Color(0, 0, 0, 150));
-        levelUpLabel.setOpaque(true);
-        levelUpLabel.setHorizontalAlignment(SwingConstants.CENTER);
-        levelUpLabel.setBounds(getWidth()/2 - 100, getHeight()/2 - 50, 200, 100);
-        
-        add(levelUpLabel);
-        
-        Timer messageTimer = new Timer(1500, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                remove(levelUpLabel);
-                repaint();
-            }
-        });
-        messageTimer.setRepeats(false);
-        messageTimer.start();
+    private void displayLevelUpMessage(int wave) {
+        // drawn by renderFrame so it also shows up on the active rendering canvas
+        levelUpText = "Wave " + wave + "!";
+        levelUpUntil = System.currentTimeMillis() + 1500;
     }
     
     private void endGame() {
-        gameOver = true;
         animationTimer.stop();
         gameTimer.stop();
+        if (gameLoop != null) {
+            gameLoop.stop();
+        }
+        stopRecording();
         
         // go to end game screen
         EndGameScreen endScreen = (EndGameScreen) game.getScreen("endGame");
-        endScreen.setFinalScore(score);
-        endScreen.setFruitStats(applesCollected, orangesCollected, pearsCollected, blueberriesCollected);
+        endScreen.setFinalScore(simulation.getScore());
+        endScreen.setFruitStats(simulation.getFruitCollected());
         game.showScreen("endGame");
     }
     
@@ -548,11 +461,11 @@ public class GamePlayScreen extends GameScreen {
         int keyCode = e.getKeyCode();
         
         if (keyCode == KeyEvent.VK_LEFT) {
-            paddle.setMovingLeft(true);
+            input.setLeft(true);
         } else if (keyCode == KeyEvent.VK_RIGHT) {
-            paddle.setMovingRight(true);
+            input.setRight(true);
         } else if (keyCode == KeyEvent.VK_ESCAPE) {
-            paused = !paused;
+            input.pressPause();
         }
     }
     
@@ -560,9 +473,9 @@ public class GamePlayScreen extends GameScreen {
         int keyCode = e.getKeyCode();
         
         if (keyCode == KeyEvent.VK_LEFT) {
-            paddle.setMovingLeft(false);
+            input.setLeft(false);
         } else if (keyCode == KeyEvent.VK_RIGHT) {
-            paddle.setMovingRight(false);
+            input.setRight(false);
         }
     }
     
@@ -570,47 +483,102 @@ public class GamePlayScreen extends GameScreen {
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
         
-        // drawing all neccesary components
-        if (backgroundImage != null) {
-            g.drawImage(backgroundImage.getImage(), 0, 0, getWidth(), getHeight(), this);
-        }        
-        drawGameInfo(g);
+        // with active rendering the game loop draws the canvas itself
+        if (!activeRendering) {
+            long start = System.nanoTime();
+            renderFrame(g, simulation.getInterpolationAlpha());
+            frameStats.addRender(System.nanoTime() - start);
+        }
+    }
+    
+    // draws one frame, alpha is how far we are between the last simulation tick and the next
+    // (package-private so headless tools like AllocationProbe can draw frames too)
+    void renderFrame(Graphics g, double alpha) {
+        // moving objects are drawn part of the way between where they were and where they are
+        BallSet balls = simulation.getBalls();
+        
+        // the play area scrolls to follow the first ball when it is bigger than the screen. with
+        // no ball in play (the last one just went out) the camera stays where it was
+        if (balls.getCount() > 0) {
+            double ballX = balls.getPreviousX(0) + (balls.getX(0) - balls.getPreviousX(0)) * alpha;
+            double ballY = balls.getPreviousY(0) + (balls.getY(0) - balls.getPreviousY(0)) * alpha;
+            updateCamera(ballX, ballY);
+        }
+        if (cameraX != playfieldX || cameraY != playfieldY) {
+            playfieldX = cameraX;
+            playfieldY = cameraY;
+            playfield.invalidate();
+        }
         
-        drawBricks(g);
+        // drawing all neccesary components
+        // background and bricks come from the playfield, which is only painted where it changed
+        playfield.draw(g, this);
+        if (g.hitClip(0, 0, getWidth(), HUD_HEIGHT)) {
+            drawGameInfo(g);
+        }
+        g.translate(-cameraX, -cameraY);
         
+        Paddle paddle = simulation.getPaddle();
+        int paddleOffset = (int)Math.round((simulation.getPreviousPaddleX() - paddle.getX()) * (1 - alpha));
+        g.translate(paddleOffset, 0);
         paddle.draw(g);
+        g.translate(-paddleOffset, 0);
         
-        ball.draw(g);
+        balls.draw(g, alpha);
+        
+        simulation.getPowerUps().draw(g, 1 - alpha);
+        
+        // draw debug outlines in play area coordinates too. what the debug drawing allocates is
+        // left out of the allocation rate it shows
+        long debugMark = showDebugBounds ? frameStats.markAllocation() : 0;
+        if (showDebugBounds) {
+            drawDebugBounds(g);
+        }
+        g.translate(cameraX, cameraY);
+        
+        if (showDebugBounds) {
+            drawDebugInfo(g);
+            drawPerformanceOverlay(g);
+            frameStats.excludeAllocation(debugMark);
+        }
         
-        for (PowerUp powerUp : fallingPowerUps) {
-            powerUp.draw(g);
+        if (System.currentTimeMillis() < levelUpUntil) {
+            drawLevelUpMessage(g);
         }
         
-        if (!gameStarted && !gameOver) {
+        if (!simulation.isGameStarted() && !simulation.isGameOver()) {
             drawStartMessage(g);
         }
         
-        if (paused) {
+        if (simulation.isPaused()) {
             drawPauseScreen(g);
         }
-        
-        // draw debug outlines if debug mode is enabled
-        if (showDebugBounds) {
-            drawDebugBounds(g);
+    }
+    
+    private void updateCamera(double ballX, double ballY) {
+        if (!simulation.isLargeBoard()) {
+            cameraX = 0;
+            cameraY = 0;
+            return;
         }
+        int maxX = Math.max(0, simulation.getWidth() - getWidth());
+        int maxY = Math.max(0, simulation.getHeight() - getHeight());
+        cameraX = Math.max(0, Math.min(maxX, (int)ballX - getWidth() / 2));
+        cameraY = Math.max(0, Math.min(maxY, (int)ballY - getHeight() / 2));
     }
     
     // debug method to visualize collision areas
     private void drawDebugBounds(Graphics g) {
-        // display debug information at top of screen
-        g.setColor(Color.RED);
-        g.setFont(new Font("Arial", Font.BOLD, 12));
-        g.drawString("debug mode on", 20, 20);
+        BallSet balls = simulation.getBalls();
+        Paddle paddle = simulation.getPaddle();
+        BrickGrid bricks = simulation.getBricks();
         
         // draw ball bounds
         g.setColor(Color.RED);
-        Rectangle ballBounds = ball.getBounds();
-        g.drawRect(ballBounds.x, ballBounds.y, ballBounds.width, ballBounds.height);
+        int radius = balls.getRadius();
+        for (int i = 0; i < balls.getCount(); i++) {
+            g.drawRect((int)(balls.getX(i) - radius), (int)(balls.getY(i) - radius), radius * 2, radius * 2);
+        }
         
         // draw paddle collision bounds
         g.setColor(Color.GREEN);
@@ -632,109 +600,221 @@ public class GamePlayScreen extends GameScreen {
                  paddleBounds.width, paddleBounds.height);
         
         // draw brick bounds and hit counts
-        for (int row = 0; row < GRID_ROWS; row++) {
-            for (int col = 0; col < GRID_COLS; col++) {
-                Brick brick = bricks[row][col];
-                if (brick != null && !brick.isBroken()) {
-                    g.setColor(Color.MAGENTA);
-                    Rectangle brickBounds = brick.getBounds();
-                    g.drawRect(brickBounds.x, brickBounds.y,
-                             brickBounds.width, brickBounds.height);
-                    
-                    // display hits taken/required
-                    g.setFont(new Font("Arial", Font.BOLD, 12));
-                    g.setColor(Color.WHITE);
-                    String hits = "hits: " + brick.getCurrentHits() + "/" + brick.getHitsRequired();
-                    g.drawString(hits, brickBounds.x + 5, brickBounds.y + brickBounds.height - 5);
-                }
+        int brickWidth = bricks.getBrickWidth();
+        int brickHeight = bricks.getBrickHeight();
+        for (int cell = bricks.nextLive(0, bricks.getRows() * bricks.getCols() - 1); cell >= 0;
+             cell = bricks.nextLive(cell + 1, bricks.getRows() * bricks.getCols() - 1)) {
+            int x = bricks.getX(cell);
+            int y = bricks.getY(cell);
+            if (x + brickWidth < cameraX || x > cameraX + getWidth() ||
+                y + brickHeight < cameraY || y > cameraY + getHeight()) {
+                continue;
             }
+            g.setColor(Color.MAGENTA);
+            g.drawRect(x, y, brickWidth, brickHeight);
+            
+            // display hits taken/required
+            g.setFont(new Font("Arial", Font.BOLD, 12));
+            g.setColor(Color.WHITE);
+            String hits = "hits: " + bricks.getHits(cell) + "/" + bricks.getKind(cell).getHitsRequired();
+            g.drawString(hits, x + 5, y + brickHeight - 5);
         }
         
         // draw power-up bounds
-        for (PowerUp powerUp : fallingPowerUps) {
+        PowerUpPool powerUps = simulation.getPowerUps();
+        for (int i = 0; i < powerUps.getCount(); i++) {
             g.setColor(Color.CYAN);
-            Rectangle powerUpBounds = powerUp.getBounds();
-            g.drawRect(powerUpBounds.x, powerUpBounds.y,
-                     powerUpBounds.width, powerUpBounds.height);
+            g.drawRect(powerUps.getX(i), powerUps.getY(i), PowerUpPool.SIZE, PowerUpPool.SIZE);
             
             // display power-up type
             g.setColor(Color.WHITE);
-            g.drawString(powerUp.getType(), powerUpBounds.x, powerUpBounds.y - 5);
+            g.drawString(powerUps.getKind(i).name(), powerUps.getX(i), powerUps.getY(i) - 5);
         }
+    }
+    
+    // debug text stays in place on screen while the play area scrolls
+    private void drawDebugInfo(Graphics g) {
+        BallSet balls = simulation.getBalls();
+        
+        // display debug information at top of screen
+        g.setColor(Color.RED);
+        g.setFont(new Font("Arial", Font.BOLD, 12));
+        g.drawString("debug mode on", 20, 20);
         
         // display game stats in debug mode
         g.setColor(Color.WHITE);
         g.setFont(new Font("Arial", Font.PLAIN, 12));
-        g.drawString("score: " + score, 20, 40);
-        g.drawString("lives: " + lives, 20, 55);
-        g.drawString("wave: " + currentWave, 20, 70);
-        g.drawString("game started: " + gameStarted, 20, 85);
-        g.drawString("paused: " + paused, 20, 100);
+        g.drawString("score: " + simulation.getScore(), 20, 40);
+        g.drawString("lives: " + simulation.getLives(), 20, 55);
+        g.drawString("wave: " + simulation.getCurrentWave(), 20, 70);
+        g.drawString("game started: " + simulation.isGameStarted(), 20, 85);
+        g.drawString("paused: " + simulation.isPaused(), 20, 100);
         
         // display ball velocity
-        g.drawString(String.format("ball velocity: dx=%.2f, dy=%.2f", ball.getDx(), ball.getDy()), 
-                    20, 115);
+        if (balls.getCount() > 0) {
+            g.drawString(String.format("ball velocity: dx=%.2f, dy=%.2f (%d in play)", balls.getDx(0), balls.getDy(0),
+                                       balls.getCount()), 20, 115);
+        } else {
+            g.drawString("ball velocity: none in play", 20, 115);
+        }
+        
+        // brick counts come straight from the wave's field, nothing is recounted
+        BrickField field = simulation.getBricks().getField();
+        g.drawString("bricks left: " + field.getLiveCount(), 20, 130);
+        int y = 145;
+        for (FruitKind kind : FruitKind.values()) {
+            g.drawString(kind.getFruitType() + ": " + field.getLiveCount(kind) + " left, "
+                         + field.getBrokenCount(kind) + " broken", 20, y);
+            y += 15;
+        }
     }
     
-    private void drawBricks(Graphics g) {
-        for (int row = 0; row < GRID_ROWS; row++) {
-            for (int col = 0; col < GRID_COLS; col++) {
-                Brick brick = bricks[row][col];
-                if (brick != null && !brick.isBroken()) {
-                    brick.draw(g);
-                }
+    // frame time graph and timings in the top right corner, only drawn in debug mode
+    private void drawPerformanceOverlay(Graphics g) {
+        int left = getWidth() - PERF_WIDTH - 10;
+        int top = 10;
+        if (perfShade == null) {
+            perfShade = SpriteCache.get().getShade(PERF_SHADE, PERF_WIDTH, PERF_HEIGHT);
+        }
+        perfShade.draw(g, left, top);
+        
+        // one bar per frame, oldest on the left; the line is a 60 fps frame
+        int graphLeft = left + 5;
+        int graphBottom = top + 5 + PERF_GRAPH_HEIGHT;
+        int count = frameStats.getFrameCount();
+        for (int i = 0; i < count; i++) {
+            long nanos = frameStats.getFrameNanos(i);
+            int height = (int)Math.min(PERF_GRAPH_HEIGHT, nanos * PERF_GRAPH_HEIGHT / PERF_GRAPH_NANOS);
+            if (nanos > PERF_GRAPH_NANOS / 2 + PERF_GRAPH_NANOS / 10) {
+                g.setColor(PERF_BAD);
+            } else if (nanos > PERF_GRAPH_NANOS / 2) {
+                g.setColor(PERF_SLOW);
+            } else {
+                g.setColor(PERF_OK);
             }
+            g.fillRect(graphLeft + FrameStats.FRAMES - count + i, graphBottom - height, 1, height);
+        }
+        g.setColor(Color.WHITE);
+        g.drawLine(graphLeft, graphBottom - PERF_GRAPH_HEIGHT / 2, graphLeft + FrameStats.FRAMES, graphBottom - PERF_GRAPH_HEIGHT / 2);
+        
+        // the text only changes a few times a second, so it isn't formatted again every frame
+        long now = System.nanoTime();
+        if (perfText[0] == null || now - perfTextAt >= PERF_TEXT_NANOS) {
+            perfTextAt = now;
+            perfText[0] = String.format("frame p50 %.1f  p99 %.1f  max %.1f ms",
+                                        frameStats.getFramePercentile(0.5) / 1e6,
+                                        frameStats.getFramePercentile(0.99) / 1e6,
+                                        frameStats.getFrameMax() / 1e6);
+            perfText[1] = String.format("sim %.2f  render %.2f  audio %.3f ms",
+                                        frameStats.getAverageSimulationNanos() / 1e6,
+                                        frameStats.getAverageRenderNanos() / 1e6,
+                                        frameStats.getAverageAudioNanos() / 1e6);
+            perfText[2] = "alloc " + frameStats.getAllocationRate() / 1024 + " KB/s (overlay not counted)";
+            perfText[3] = "gc " + frameStats.getGcCount() + "  time max " + frameStats.getGcMaxMillis()
+                          + "  last " + frameStats.getLastGcMillis() + "  total " + frameStats.getGcTotalMillis() + " ms";
+            perfText[4] = "bricks " + simulation.getBricks().getField().getLiveCount()
+                          + "  power-ups " + simulation.getPowerUps().getCount() + "/" + simulation.getPowerUps().getCapacity()
+                          + " (" + simulation.getPowerUps().getOverflowed() + " over)"
+                          + "  voices " + game.getSoundBank().getActiveVoices();
+        }
+        
+        g.setFont(PERF_FONT);
+        int y = graphBottom + 14;
+        for (String line : perfText) {
+            g.drawString(line, graphLeft, y);
+            y += 13;
         }
     }
     
     private void drawGameInfo(Graphics g) {
         // hearts for the top left
-        if (heartImage != null) {
+        if (heartSprite != null) {
             int heartSpacing = 30;
-            for (int i = 0; i < lives; i++) {
-                g.drawImage(heartImage.getImage(), 10 + (i * heartSpacing), 10, 25, 25, this);
+            for (int i = 0; i < simulation.getLives(); i++) {
+                heartSprite.draw(g, 10 + (i * heartSpacing), 10);
             }
         }
         
         // draw score in the middle top
         g.setColor(Color.WHITE);
-        g.setFont(new Font("Arial", Font.BOLD, 28));
-        String scoreText = "" + score;
-        FontMetrics fm = g.getFontMetrics();
-        int scoreWidth = fm.stringWidth(scoreText);
+        g.setFont(SCORE_FONT);
+        if (simulation.getScore() != shownScore) {
+            shownScore = simulation.getScore();
+            scoreText = Integer.toString(shownScore);
+            if (scoreMetrics == null) {
+                scoreMetrics = g.getFontMetrics(SCORE_FONT);
+            }
+            scoreWidth = scoreMetrics.stringWidth(scoreText);
+        }
         g.drawString(scoreText, (getWidth() - scoreWidth) / 2 + 20, 45);
     }
     
     private void drawStartMessage(Graphics g) {
-        g.setColor(new Color(0, 0, 0, 100));
-        g.fillRect(0, 0, getWidth(), getHeight());
+        updateShades();
+        startShade.draw(g, 0, 0);
         
         // start next wave
         g.setColor(Color.WHITE);
-        g.setFont(new Font("Arial", Font.BOLD, 40));
-        String startText = "Press SPACE to Start";
-        FontMetrics fm = g.getFontMetrics();
-        int textWidth = fm.stringWidth(startText);
-        g.drawString(startText, (getWidth() - textWidth) / 2, getHeight() / 2);
-        g.setFont(new Font("Arial", Font.BOLD, 28));
-        String waveText = "Wave " + currentWave;
+        g.setFont(BANNER_FONT);
+        FontMetrics fm = getBannerMetrics(g);
+        int textWidth = fm.stringWidth(START_TEXT);
+        g.drawString(START_TEXT, (getWidth() - textWidth) / 2, getHeight() / 2);
+        g.setFont(SCORE_FONT);
+        if (simulation.getCurrentWave() != shownWave) {
+            shownWave = simulation.getCurrentWave();
+            waveText = "Wave " + shownWave;
+        }
         textWidth = fm.stringWidth(waveText);
         g.drawString(waveText, (getWidth() - textWidth) / 2, getHeight() / 2 + 50);
     }
     
+    private void drawLevelUpMessage(Graphics g) {
+        int boxX = getWidth()/2 - 100;
+        int boxY = getHeight()/2 - 50;
+        updateShades();
+        levelUpShade.draw(g, boxX, boxY);
+        g.setColor(Color.YELLOW);
+        g.setFont(LEVEL_UP_FONT);
+        if (levelUpMetrics == null) {
+            levelUpMetrics = g.getFontMetrics(LEVEL_UP_FONT);
+        }
+        FontMetrics fm = levelUpMetrics;
+        int textWidth = fm.stringWidth(levelUpText);
+        g.drawString(levelUpText, boxX + (200 - textWidth) / 2, boxY + (100 - fm.getHeight()) / 2 + fm.getAscent());
+    }
+    
     private void drawPauseScreen(Graphics g) {
         // pausing the game
-        g.setColor(new Color(0, 0, 0, 150));
-        g.fillRect(0, 0, getWidth(), getHeight());
+        updateShades();
+        pauseShade.draw(g, 0, 0);
         g.setColor(Color.WHITE);
-        g.setFont(new Font("Arial", Font.BOLD, 40));
-        FontMetrics fm = g.getFontMetrics();
-        String pauseText = "PAUSED";
-        int textWidth = fm.stringWidth(pauseText);
-        g.drawString(pauseText, (getWidth() - textWidth) / 2, getHeight() / 2);
-        g.setFont(new Font("Arial", Font.PLAIN, 20));
-        String instructions = "Press ESC to resume";
-        textWidth = fm.stringWidth(instructions);
-        g.drawString(instructions, (getWidth() - textWidth) / 2, getHeight() / 2 + 40);
+        g.setFont(BANNER_FONT);
+        FontMetrics fm = getBannerMetrics(g);
+        int textWidth = fm.stringWidth(PAUSE_TEXT);
+        g.drawString(PAUSE_TEXT, (getWidth() - textWidth) / 2, getHeight() / 2);
+        g.setFont(HINT_FONT);
+        textWidth = fm.stringWidth(PAUSE_HINT_TEXT);
+        g.drawString(PAUSE_HINT_TEXT, (getWidth() - textWidth) / 2, getHeight() / 2 + 40);
     }
-}
\ No newline at end of file
+    
+    private void updateShades() {
+        if (startShade == null || shadeWidth != getWidth() || shadeHeight != getHeight()) {
+            shadeWidth = getWidth();
+            shadeHeight = getHeight();
+            startShade = SpriteCache.get().getShade(START_SHADE, shadeWidth, shadeHeight);
+            pauseShade = SpriteCache.get().getShade(PAUSE_SHADE, shadeWidth, shadeHeight);
+            levelUpShade = SpriteCache.get().getShade(PAUSE_SHADE, 200, 100);
+        }
+    }
+    
+    private FontMetrics getBannerMetrics(Graphics g) {
+        if (bannerMetrics == null) {
+            bannerMetrics = g.getFontMetrics(BANNER_FONT);
+        }
+        return bannerMetrics;
+    }
+    
+    // for headless tools that drive the screen without a window
+    GameSimulation getSimulation() { return simulation; }
+    GameInput getInput() { return input; }
+}
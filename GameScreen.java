@@ -6,10 +6,17 @@
  * @version (a version number or a date)
  */
 import javax.swing.*;
+import java.util.ArrayList;
 
 public abstract class GameScreen extends JPanel {
     protected BrickBreakerGame game;
     
+    // pictures and cached layers this screen made, so they can be waited for and let go of together.
+    // each screen also lists its pictures in a static PICTURES array, so BrickBreakerGame can
+    // start decoding them before the screen itself is built
+    private final ArrayList<ScreenPicture> pictures = new ArrayList<>();
+    private final ArrayList<LayerCache> layers = new ArrayList<>();
+    
     public GameScreen(BrickBreakerGame game) {
         this.game = game;
         setLayout(null);
@@ -17,4 +24,51 @@ public abstract class GameScreen extends JPanel {
     
     // this gets called when screen in active
     public void onActivate() {}
+    
+    // called when another screen takes over
+    public void onDeactivate() {}
+    
+    // starts decoding a picture in the background for this screen
+    protected ScreenPicture addPicture(String filename) {
+        ScreenPicture picture = new ScreenPicture(game.getAssets(), filename);
+        pictures.add(picture);
+        return picture;
+    }
+    
+    // a cached layer that is let go of along with the pictures
+    protected LayerCache addLayer(LayerCache layer) {
+        layers.add(layer);
+        return layer;
+    }
+    
+    // waits for this screen's pictures, called just before onActivate so nothing has to
+    // wait in the middle of painting
+    public void awaitPictures() {
+        for (ScreenPicture picture : pictures) {
+            picture.get();
+        }
+    }
+    
+    // lets go of whatever this screen can load again, called while it is hidden and the
+    // game wants the memory back
+    public void releaseAssets() {
+        for (ScreenPicture picture : pictures) {
+            picture.release();
+        }
+        for (LayerCache layer : layers) {
+            layer.release();
+        }
+    }
+    
+    // about how much memory releaseAssets would give back
+    public long getAssetBytes() {
+        long bytes = 0;
+        for (ScreenPicture picture : pictures) {
+            bytes += picture.getBytes();
+        }
+        for (LayerCache layer : layers) {
+            bytes += layer.getBytes();
+        }
+        return bytes;
+    }
 }
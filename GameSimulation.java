@@ -0,0 +1,641 @@
+import java.awt.Rectangle;
+import java.util.*;
+
+public class GameSimulation {
+    // the rules always advance in fixed 60 Hz ticks, however often step is called
+    public static final double TICK_SECONDS = 1.0 / 60.0;
+    private static final double MAX_STEP_SECONDS = 0.25; // don't try to catch up after a long stall
+
+    // constants for game elements
+    private static final int GRID_ROWS = 3;
+    private static final int GRID_COLS = 7;
+    private static final double BRICK_WIDTH = 59.7;
+    private static final double BRICK_HEIGHT = 29.9;
+    private static final double PADDLE_WIDTH = 122.3;
+    private static final double PADDLE_HEIGHT = 19.3;
+    private static final double BALL_SIZE = 20.1;
+    private static final double BRICK_SPACING_X = 15.0; // increased horizontal spacing
+    private static final double BRICK_SPACING_Y = 10.0; // increased vertical spacing
+    private static final int MAX_BRICK_HITS_PER_TICK = 3; // bounces resolved inside one tick
+    private static final int BOARD_TOP = 100;             // top position for the grid
+    private static final int BOARD_MARGIN = 40;           // gap beside a board wider than the screen
+    private static final int PADDLE_BOTTOM_GAP = 50;      // paddle sits this far above the bottom
+    private static final double CONTACT_NUDGE = 0.01;     // keeps the ball just off a surface it bounced from
+    private static final double SPLIT_ANGLE = 0.35;       // radians a multi-ball turns the new balls off the old one
+    private static final double STRESS_FAN = Math.PI / 3; // extra stress balls leave up to this far from straight up
+
+    // size of the play area, bigger than the view when the board doesn't fit on screen
+    private int width;
+    private int height;
+    private int viewWidth;
+    private int viewHeight;
+
+    // size of the brick board
+    private int boardRows;
+    private int boardCols;
+
+    // game state variables
+    private int score = 0;
+    private int lives = 3;
+    private boolean gameStarted = false;
+    private boolean paused = false;
+    private boolean gameOver = false;
+    private int currentWave = 1;
+
+    // game objects
+    private Paddle paddle;
+    private BallSet balls;
+    private BrickGrid bricks;
+    private SweptCollision.Hit hit = new SweptCollision.Hit();
+    private PowerUpPool powerUps;
+
+    // extra balls sent up with every launch, for loading the physics with hundreds of balls
+    private int stressBalls;
+    // whether cherry bricks (and the multi-ball they drop) turn up, only with
+    // -Dbrickbreaker.multiBall or a stress run
+    private boolean multiBall;
+
+    // brick collision totals for the tick being run, over every ball
+    private int tickBricksHit;
+    private int tickBricksTested;
+
+    // fruit caught so far, by FruitKind id
+    private int[] fruitCollected = new int[FruitKind.values().length];
+    private int ballsLost = 0;
+
+    // every random choice comes from one seeded generator, split so the brick layout
+    // and the drops each get their own stream and a replay of the seed plays out the same
+    private long seed;
+    private SplittableRandom layoutRandom;
+    private SplittableRandom dropRandom;
+    private ReplayRecorder recorder;
+
+    // time not yet simulated and number of ticks run so far
+    private double accumulator = 0;
+    private long tickCount = 0;
+
+    // paddle position at the start of the last tick, so renderers can draw between ticks
+    // (the balls keep their own)
+    private int previousPaddleX;
+
+    private Listener listener;
+
+    // things the simulation can't do itself, like playing sounds or changing screens
+    public interface Listener {
+        void onSound(String filename);
+        void onWaveStarted(int wave);
+        void onGameOver();
+    }
+
+    public GameSimulation(int width, int height) {
+        this(width, height, GRID_ROWS, GRID_COLS);
+    }
+
+    // a board with more rows or columns than the default is bigger than the screen and scrolls
+    public GameSimulation(int width, int height, int boardRows, int boardCols) {
+        this.boardRows = boardRows;
+        this.boardCols = boardCols;
+        setSize(width, height);
+
+        powerUps = new PowerUpPool(Integer.getInteger("brickbreaker.powerUpCapacity", PowerUpPool.DEFAULT_CAPACITY));
+        stressBalls = Integer.getInteger("brickbreaker.stressBalls", 0);
+        multiBall = Boolean.getBoolean("brickbreaker.multiBall") || stressBalls > 0;
+
+        // initialize game objects with exact dimensions, sized to the play area (this.width),
+        // which is wider than the width passed in when the board is large
+        int paddleX = (this.width - (int)PADDLE_WIDTH) / 2;
+        int paddleY = 580;
+
+        paddle = new Paddle(paddleX, paddleY, (int)PADDLE_WIDTH, (int)PADDLE_HEIGHT, this.width);
+        balls = new BallSet(Integer.getInteger("brickbreaker.ballCapacity", BallSet.DEFAULT_CAPACITY), (int)(BALL_SIZE/2));
+        balls.reset(paddleX + (int)(PADDLE_WIDTH/2), paddleY - (int)BALL_SIZE);
+
+        // create the grid for bricks
+        bricks = new BrickGrid(boardRows, boardCols, (int)BRICK_WIDTH, (int)BRICK_HEIGHT);
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    // every tick's input goes to the recorder until it is set back to null
+    public void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    // the play area follows the size of whatever is showing it, grown to fit a large board
+    public void setSize(int width, int height) {
+        viewWidth = width;
+        viewHeight = height;
+
+        double boardWidth = boardCols * BRICK_WIDTH + (boardCols - 1) * BRICK_SPACING_X;
+        double extraHeight = (boardRows - GRID_ROWS) * (BRICK_HEIGHT + BRICK_SPACING_Y);
+        this.width = Math.max(width, (int)boardWidth + 2 * BOARD_MARGIN);
+        this.height = height + Math.max(0, (int)extraHeight);
+        if (paddle != null) {
+            paddle.setGameWidth(this.width);
+        }
+    }
+
+    // starts a new game with a fresh seed
+    public void reset() {
+        reset(new SplittableRandom().nextLong());
+    }
+
+    // starts a new game that plays out the same way every time for the same seed and input
+    public void reset(long seed) {
+        this.seed = seed;
+        SplittableRandom random = new SplittableRandom(seed);
+        layoutRandom = random.split();
+        dropRandom = random.split();
+        tickCount = 0;
+
+        score = 0;
+        lives = 3;
+        paused = false;
+        gameOver = false;
+        gameStarted = false;
+        currentWave = 1;
+        accumulator = 0;
+
+        // reset fruit counts
+        Arrays.fill(fruitCollected, 0);
+        ballsLost = 0;
+
+        // clear any power-ups
+        powerUps.clear();
+
+        // reset paddle position
+        int paddleX = (width - (int)PADDLE_WIDTH) / 2;
+        int paddleY = height - PADDLE_BOTTOM_GAP;
+        paddle.reset(paddleX, paddleY);
+
+        // reset ball position (on paddle)
+        balls.reset(paddleX + (int)(PADDLE_WIDTH/2), paddleY - (int)BALL_SIZE);
+
+        // initialize brick grid for the first wave
+        setupBrickGrid();
+        rememberPositions();
+    }
+
+    // advances by real elapsed time, running as many fixed ticks as fit, returns how many ran
+    public int step(double elapsedSeconds, PaddleController controller) {
+        accumulator += Math.min(elapsedSeconds, MAX_STEP_SECONDS);
+        int ticks = 0;
+        while (accumulator >= TICK_SECONDS) {
+            tick(controller);
+            accumulator -= TICK_SECONDS;
+            ticks++;
+        }
+        return ticks;
+    }
+
+    // one fixed tick of the game rules
+    public void tick(PaddleController controller) {
+        tick(controller.nextKeys(this));
+    }
+
+    // one tick with the keys given as GameInput bits, e.g. read back from a replay
+    public void tick(int keys) {
+        GameEvents.Tick event = null;
+        if (GameEvents.TICK.isEnabled()) {
+            event = new GameEvents.Tick();
+            event.begin();
+        }
+        if (recorder != null) {
+            recorder.record(keys);
+        }
+        tickCount++;
+        rememberPositions();
+
+        if ((keys & GameInput.PAUSE) != 0 && !gameOver) {
+            paused = !paused;
+        }
+        if ((keys & GameInput.LAUNCH) != 0 && !gameStarted && !gameOver) {
+            gameStarted = true;
+            balls.launch();
+            if (stressBalls > 0) {
+                addBalls(stressBalls);
+            }
+        }
+
+        if (gameStarted && !paused && !gameOver) {
+            paddle.setMovingLeft((keys & GameInput.LEFT) != 0);
+            paddle.setMovingRight((keys & GameInput.RIGHT) != 0);
+            updateGame();
+        }
+
+        // a ball sitting on the paddle was teleported there, don't draw it sliding across the screen
+        if (!balls.isLaunched()) {
+            balls.rememberPositions();
+        }
+
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.tick = tickCount;
+                event.wave = currentWave;
+                event.keys = keys;
+                event.bricksLeft = bricks.getField().getLiveCount();
+                event.powerUps = powerUps.getCount();
+                event.commit();
+            }
+        }
+    }
+
+    private void rememberPositions() {
+        balls.rememberPositions();
+        previousPaddleX = paddle.getX();
+    }
+
+    // how far we are between the last tick and the next one, from 0 to 1
+    public double getInterpolationAlpha() {
+        return Math.min(1.0, accumulator / TICK_SECONDS);
+    }
+
+    // ends the game early, e.g. when the timed mode runs out
+    public void endGame() {
+        if (gameOver) {
+            return;
+        }
+        gameOver = true;
+        if (listener != null) {
+            listener.onGameOver();
+        }
+    }
+
+    private void setupBrickGrid() {
+        GameEvents.WaveSetup event = new GameEvents.WaveSetup();
+        event.begin();
+
+        // calculate total grid width including spacing
+        double totalGridWidth = boardCols * BRICK_WIDTH + (boardCols - 1) * BRICK_SPACING_X;
+        int startX = (int)((width - totalGridWidth) / 2);
+        int startY = BOARD_TOP;
+        bricks.clear(startX, startY, BRICK_WIDTH + BRICK_SPACING_X, BRICK_HEIGHT + BRICK_SPACING_Y);
+
+        for (int row = 0; row < boardRows; row++) {
+            for (int col = 0; col < boardCols; col++) {
+                int x = startX + (int)(col * (BRICK_WIDTH + BRICK_SPACING_X));
+                int y = startY + (int)(row * (BRICK_HEIGHT + BRICK_SPACING_Y));
+
+                // create a brick with probability based on current wave
+                bricks.set(row, col, x, y, pickBrickForWave());
+            }
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.wave = currentWave;
+            event.rows = boardRows;
+            event.cols = boardCols;
+            event.bricksCreated = bricks.getField().getLiveCount();
+            event.commit();
+        }
+    }
+
+    private FruitKind pickBrickForWave() {
+        // adjust probabilities based on wave number
+        double rand = layoutRandom.nextDouble();
+
+        // as waves progress, increase probability of harder bricks
+        double appleProb = Math.max(0.1, 0.5 - (currentWave * 0.05));
+        double orangeProb = Math.min(0.4, 0.2 + (currentWave * 0.02));
+        double pearProb = Math.min(0.2, 0.1 + (currentWave * 0.01));
+        double blueberryProb = Math.min(0.2, 0.05 + (currentWave * 0.015));
+        double heartProb = 0.05;
+        double plusProb = 0.05;
+        double cherryProb = multiBall ? 0.03 : 0;   // taken from the peaches when it's on
+
+        // create appropriate brick type
+        if (rand < appleProb) {
+            return FruitKind.APPLE;
+        } else if (rand < appleProb + orangeProb) {
+            return FruitKind.ORANGE;
+        } else if (rand < appleProb + orangeProb + pearProb) {
+            return FruitKind.PEAR;
+        } else if (rand < appleProb + orangeProb + pearProb + blueberryProb) {
+            return FruitKind.BLUEBERRY;
+        } else if (rand < appleProb + orangeProb + pearProb + blueberryProb + heartProb) {
+            return FruitKind.HEART;
+        } else if (rand < appleProb + orangeProb + pearProb + blueberryProb + heartProb + plusProb) {
+            return FruitKind.PLUS;
+        } else if (rand < appleProb + orangeProb + pearProb + blueberryProb + heartProb + plusProb + cherryProb) {
+            return FruitKind.CHERRY;
+        } else {
+            return FruitKind.PEACH;
+        }
+    }
+
+    private void updateGame() {
+        // move the paddle
+        paddle.move();
+
+        // move the balls, stopping at any bricks along the way
+        updateBalls();
+
+        // check if the last ball is lost (falls below screen)
+        if (balls.getCount() == 0) {
+            handleBallLost();
+            if (gameOver) {
+                return;
+            }
+        }
+
+        // update falling power-ups
+        updatePowerUps();
+
+        // check if all bricks are broken for next wave
+        checkWaveCompletion();
+    }
+
+    // moves every ball through one tick in slot order, each one's brick hits taking effect
+    // before the next ball moves, so two balls reaching the same brick in one tick always
+    // play out the same way for a seed. balls that fell off the bottom are taken out after.
+    // the cost is linear in the number of balls: each one is moved and looks up only the
+    // brick cells its own path crosses (see BrickGrid.sweep)
+    private void updateBalls() {
+        GameEvents.BrickCollision event = null;
+        if (GameEvents.BRICK_COLLISION.isEnabled()) {
+            event = new GameEvents.BrickCollision();
+            event.begin();
+        }
+        tickBricksHit = 0;
+        tickBricksTested = 0;
+
+        int count = balls.getCount();
+        for (int i = 0; i < count; i++) {
+            double startX = balls.getX(i);
+            double startY = balls.getY(i);
+            balls.move(i);
+            checkBrickCollisions(i, startX, startY);
+
+            // check ball collisions with walls
+            checkWallCollisions(i);
+
+            // check ball collision with paddle
+            checkPaddleCollision(i);
+        }
+
+        // from the back, so the ball swapped into a removed one's slot has already been checked
+        for (int i = count - 1; i >= 0; i--) {
+            if (balls.getY(i) > height) {
+                balls.remove(i);
+            }
+        }
+
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.hit = tickBricksHit > 0;
+                event.balls = count;
+                event.bricksHit = tickBricksHit;
+                event.bricksTested = tickBricksTested;
+                event.commit();
+            }
+        }
+    }
+
+    private void checkWallCollisions(int i) {
+        // left and right walls, always turning back inwards: just flipping the direction
+        // left a ball that had been pushed past a wall flipping every tick, stuck in it
+        int radius = balls.getRadius();
+        if (balls.getX(i) - radius <= 0) {
+            balls.setVelocity(i, Math.abs(balls.getDx(i)), balls.getDy(i));
+        } else if (balls.getX(i) + radius >= width) {
+            balls.setVelocity(i, -Math.abs(balls.getDx(i)), balls.getDy(i));
+        }
+
+        // top wall
+        if (balls.getY(i) - radius <= 0) {
+            balls.setVelocity(i, balls.getDx(i), Math.abs(balls.getDy(i)));
+        }
+    }
+
+    private void checkPaddleCollision(int i) {
+        if (balls.overlaps(i, paddle.getCollisionBounds())) {
+            // calculate bounce angle based on where ball hit the paddle
+            double paddleCenter = paddle.getX() + paddle.getWidth() / 2;
+            double ballDistFromCenter = balls.getX(i) - paddleCenter;
+            double normalizedDist = ballDistFromCenter / (paddle.getWidth() / 2);
+
+            // set new ball direction (angle based on hit position)
+            double dx = balls.getDx(i);
+            double dy = balls.getDy(i);
+            double ballSpeed = Math.sqrt(dx * dx + dy * dy);
+            double angle = normalizedDist * (Math.PI / 4); // max 45 degree bounce
+
+            balls.setVelocity(i, ballSpeed * Math.sin(angle), -ballSpeed * Math.cos(angle));
+
+            // ensure ball is above the paddle to prevent multiple collisions
+            double newY = paddle.getY() - balls.getRadius() - 1;
+            balls.setPosition(i, (int)balls.getX(i), (int)newY);
+        }
+    }
+
+    // sweeps a ball from where it started this tick to where it ended up, so fast balls
+    // can't skip through a brick; each hit bounces the ball and the rest of the move continues
+    private void checkBrickCollisions(int i, double startX, double startY) {
+        double x = startX;
+        double y = startY;
+        double moveX = balls.getX(i) - startX;
+        double moveY = balls.getY(i) - startY;
+        int lastHit = -1;
+
+        for (int bounce = 0; bounce < MAX_BRICK_HITS_PER_TICK; bounce++) {
+            int cell = bricks.sweep(x, y, moveX, moveY, balls.getRadius(), lastHit, hit);
+            tickBricksTested += hit.tested;
+            if (cell < 0) {
+                break;
+            }
+
+            // move to the contact point and reflect off the surface normal
+            x += moveX * hit.t + hit.normalX * CONTACT_NUDGE;
+            y += moveY * hit.t + hit.normalY * CONTACT_NUDGE;
+            double remaining = 1 - hit.t;
+            moveX *= remaining;
+            moveY *= remaining;
+
+            double dx = balls.getDx(i);
+            double dy = balls.getDy(i);
+            double dot = dx * hit.normalX + dy * hit.normalY;
+            balls.setVelocity(i, dx - 2 * dot * hit.normalX, dy - 2 * dot * hit.normalY);
+            double moveDot = moveX * hit.normalX + moveY * hit.normalY;
+            if (moveDot < 0) {
+                moveX -= 2 * moveDot * hit.normalX;
+                moveY -= 2 * moveDot * hit.normalY;
+            }
+
+            handleBrickHit(cell);
+            lastHit = cell;
+            tickBricksHit++;
+        }
+
+        if (lastHit >= 0) {
+            balls.setPosition(i, x + moveX, y + moveY);
+        }
+    }
+
+    private void handleBrickHit(int cell) {
+        FruitKind kind = bricks.getKind(cell);
+        playSound(kind.getHitSound());
+
+        if (bricks.hit(cell)) {
+            // add points based on brick type
+            score += kind.getPoints();
+
+            // check if this brick should drop a power-up or fruit (20% chance for most fruit,
+            // heart and plus bricks always drop theirs)
+            if (dropRandom.nextDouble() < kind.getDropChance()) {
+                // calculate center of brick for power-up spawn
+                int powerUpX = bricks.getX(cell) + bricks.getBrickWidth() / 2 - PowerUpPool.SIZE / 2; // center and adjust for power-up width
+                int powerUpY = bricks.getY(cell) + bricks.getBrickHeight() / 2 - PowerUpPool.SIZE / 2; // center and adjust for power-up height
+                powerUps.add(powerUpX, powerUpY, PowerUpKind.droppedBy(kind));
+            }
+        }
+    }
+
+    private void handlePowerUpCollected(PowerUpKind kind) {
+        score += kind.getPoints();
+        playSound(kind.getSound());
+
+        switch (kind.getEffect()) {
+            case FRUIT:
+                fruitCollected[kind.getDroppedBy().getId()]++;
+                break;
+            case EXTRA_LIFE:
+                if (lives < 3) {
+                    lives++;
+                }
+                break;
+            case MEGA_BASKET:
+                paddle.activateMegaBasket(600);
+                break;
+            case MULTI_BALL:
+                fruitCollected[kind.getDroppedBy().getId()]++;
+                splitBalls();
+                break;
+        }
+    }
+
+    private void updatePowerUps() {
+        powerUps.move();
+
+        // from the back, so the power-up swapped into a removed one's slot has already been checked
+        Rectangle collectionBand = paddle.getCollectionBounds();
+        for (int i = powerUps.getCount() - 1; i >= 0; i--) {
+            // check if power-up is collected - use the collection bounds instead of full bounds
+            if (powerUps.overlaps(i, collectionBand)) {
+                handlePowerUpCollected(powerUps.getKind(i));
+                powerUps.remove(i);
+                // a mega basket widens the band straight away
+                collectionBand = paddle.getCollectionBounds();
+            }
+            // check if power-up falls off screen
+            else if (powerUps.getY(i) > height) {
+                powerUps.remove(i);
+            }
+        }
+    }
+
+    private void handleBallLost() {
+        ballsLost++;
+        lives--;
+
+        if (lives <= 0) {
+            endGame();
+        } else {
+            int paddleX = paddle.getX();
+            balls.reset(paddleX + paddle.getWidth()/2, paddle.getY() - (int)BALL_SIZE);
+            gameStarted = false;
+        }
+    }
+
+    // every ball in play splits into three, the new two turned either side of it
+    private void splitBalls() {
+        double cos = Math.cos(SPLIT_ANGLE);
+        double sin = Math.sin(SPLIT_ANGLE);
+        int count = balls.getCount();
+        for (int i = 0; i < count; i++) {
+            double dx = balls.getDx(i);
+            double dy = balls.getDy(i);
+            balls.add(balls.getX(i), balls.getY(i), dx * cos - dy * sin, dx * sin + dy * cos);
+            balls.add(balls.getX(i), balls.getY(i), dx * cos + dy * sin, -dx * sin + dy * cos);
+        }
+    }
+
+    // sends more balls up from where the first one is, fanned out evenly either side of
+    // straight up at its speed. stops early if the set fills up
+    public void addBalls(int count) {
+        if (balls.getCount() == 0) {
+            return;
+        }
+        double x = balls.getX(0);
+        double y = balls.getY(0);
+        double speed = Math.sqrt(balls.getDx(0) * balls.getDx(0) + balls.getDy(0) * balls.getDy(0));
+        for (int n = 0; n < count; n++) {
+            double angle = count == 1 ? 0 : STRESS_FAN * (2.0 * n / (count - 1) - 1);
+            if (!balls.add(x, y, speed * Math.sin(angle), -speed * Math.cos(angle))) {
+                break;
+            }
+        }
+    }
+
+    private void checkWaveCompletion() {
+        // the field keeps count of the bricks still standing
+        if (!bricks.getField().isCleared()) {
+            return;
+        }
+
+        // next wave starts
+        startNextWave();
+    }
+
+    private void startNextWave() {
+        currentWave++;
+
+        // resetting the ball and wait for user to pres the space bar
+        int paddleX = paddle.getX();
+        balls.reset(paddleX + paddle.getWidth()/2, paddle.getY() - (int)BALL_SIZE);
+        gameStarted = false;
+
+        // new bricks
+        setupBrickGrid();
+
+        if (listener != null) {
+            listener.onWaveStarted(currentWave);
+        }
+    }
+
+    // null for things with no sound of their own yet
+    private void playSound(String filename) {
+        if (listener != null && filename != null) {
+            listener.onSound(filename);
+        }
+    }
+
+    // getters
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getViewWidth() { return viewWidth; }
+    public int getViewHeight() { return viewHeight; }
+    public int getBoardRows() { return boardRows; }
+    public int getBoardCols() { return boardCols; }
+    public boolean isLargeBoard() { return width > viewWidth || height > viewHeight; }
+    public int getScore() { return score; }
+    public int getLives() { return lives; }
+    public int getCurrentWave() { return currentWave; }
+    public boolean isGameStarted() { return gameStarted; }
+    public boolean isPaused() { return paused; }
+    public boolean isGameOver() { return gameOver; }
+    public long getTickCount() { return tickCount; }
+    public long getSeed() { return seed; }
+    public int getPreviousPaddleX() { return previousPaddleX; }
+    public Paddle getPaddle() { return paddle; }
+    public BallSet getBalls() { return balls; }
+    public BrickGrid getBricks() { return bricks; }
+    public PowerUpPool getPowerUps() { return powerUps; }
+    public int getFruitCollected(FruitKind kind) { return fruitCollected[kind.getId()]; }
+    public int[] getFruitCollected() { return fruitCollected; }
+    public int getBallsLost() { return ballsLost; }
+}
@@ -3,19 +3,16 @@ import java.awt.*;
 import java.awt.event.*;
 
 public class HomeScreen extends GameScreen {
-    private ImageIcon backgroundImage;
+    public static final String[] PICTURES = { "StartScreen.png" };
+    
+    private LayerCache background;
     private Rectangle playButtonBounds;
     private boolean showDebugBounds = false;
     
     public HomeScreen(BrickBreakerGame game) {
         super(game);
         
-        try {
-            backgroundImage = new ImageIcon("StartScreen.png");
-        } catch (Exception e) {
-            System.out.println("error loading home background: " + e.getMessage());
-            backgroundImage = null;
-        }
+        background = addLayer(LayerCache.forPicture(addPicture(PICTURES[0]), null));
         
         // because the play button is in the photo we are making bounds for it
         // adjusted to match the actual circular play button in bottom right
@@ -93,10 +90,9 @@ public class HomeScreen extends GameScreen {
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
         
-        if (backgroundImage != null) {
-            // draw background
-            g.drawImage(backgroundImage.getImage(), 0, 0, getWidth(), getHeight(), this);
-        }
+        // draw background, scaled once and then copied
+        background.draw(g, this);
+        game.getAssets().firstFramePainted();
         
         // draw debug bounds if enabled
         if (showDebugBounds) {
@@ -3,7 +3,9 @@ import java.awt.*;
 import java.awt.event.*;
 
 public class HowToPlayScreen extends GameScreen {
-    private ImageIcon backgroundImage;
+    public static final String[] PICTURES = { "HowToPlayScreen.png" };
+    
+    private LayerCache background;
     private Rectangle gotItButton;
     private boolean showDebugBounds = false;
     
@@ -11,12 +13,7 @@ public class HowToPlayScreen extends GameScreen {
         super(game);
         
         // load image
-        try {
-            backgroundImage = new ImageIcon("HowToPlayScreen.png");
-        } catch (Exception e) {
-            System.out.println("error loading how to play image: " + e.getMessage());
-            backgroundImage = null;
-        }
+        background = addLayer(LayerCache.forPicture(addPicture(PICTURES[0]), null));
         
         // add got it bounds
         gotItButton = new Rectangle(215, 470, 171, 61);
@@ -79,9 +76,7 @@ public class HowToPlayScreen extends GameScreen {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        if (backgroundImage != null) {
-            g.drawImage(backgroundImage.getImage(), 0, 0, getWidth(), getHeight(), this);
-        }
+        background.draw(g, this);
         
         // draw debug bounds if enabled
         if (showDebugBounds) {
@@ -0,0 +1,136 @@
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+// gets the intro's dialogue pages ready one ahead of the player. while page n is on screen
+// page n + 1's animation is decoded on the asset loader and its line starts streaming, so the
+// click that turns the page doesn't wait on a decoder. it also keeps how long each page took
+// to decode and how far ahead of the click it was ready
+public class IntroPreloader {
+    private final AssetLoader assets;
+    private final SoundBank sounds;
+    private final String[] pictureFiles;
+    private final String[] soundFiles;
+
+    private final ArrayList<CompletableFuture<AnimatedPicture>> pictures = new ArrayList<>();
+    private final SoundStream[] streams;
+
+    // per page timings, decodeNanos and readyAt are written by the loader before its future completes
+    private final long[] decodeNanos;
+    private final long[] readyAt;
+    private final long[] readyAhead;
+    private final boolean[] shown;
+
+    public IntroPreloader(AssetLoader assets, SoundBank sounds, String[] pictureFiles, String[] soundFiles) {
+        this.assets = assets;
+        this.sounds = sounds;
+        this.pictureFiles = pictureFiles;
+        this.soundFiles = soundFiles;
+        int pages = pictureFiles.length;
+        for (int i = 0; i < pages; i++) {
+            pictures.add(null);
+        }
+        streams = new SoundStream[pages];
+        decodeNanos = new long[pages];
+        readyAt = new long[pages];
+        readyAhead = new long[pages];
+        shown = new boolean[pages];
+    }
+
+    // starts decoding a page's picture and streaming its sound, if that isn't already under way
+    public void prefetch(int page) {
+        if (page < 0 || page >= pictures.size()) {
+            return;
+        }
+        if (pictures.get(page) == null) {
+            String filename = pictureFiles[page];
+            pictures.set(page, assets.supply(() -> {
+                long start = System.nanoTime();
+                AnimatedPicture picture = AnimatedPicture.load(filename);
+                readyAt[page] = System.nanoTime();
+                decodeNanos[page] = readyAt[page] - start;
+                return picture;
+            }));
+        }
+        if (streams[page] == null) {
+            streams[page] = sounds.prefetch(soundFiles[page]);
+        }
+    }
+
+    // the page's picture for the screen to play (null when it is missing), waiting for it if it
+    // isn't decoded yet. lets go of the pages before it and starts on the next one
+    public AnimatedPicture show(int page) {
+        prefetch(page);
+        GameEvents.IntroPage event = new GameEvents.IntroPage();
+        event.begin();
+        long clicked = System.nanoTime();
+        AnimatedPicture picture = AssetLoader.await(pictures.get(page));
+        event.end();
+
+        readyAhead[page] = clicked - readyAt[page];
+        shown[page] = true;
+        if (event.shouldCommit()) {
+            event.page = page + 1;
+            event.file = pictureFiles[page];
+            event.decodeTime = decodeNanos[page];
+            event.readyAhead = readyAhead[page];
+            event.frames = picture != null ? picture.getFrameCount() : 0;
+            event.soundReady = streams[page] == null || streams[page].isReady();
+            event.commit();
+        }
+
+        for (int i = 0; i < page; i++) {
+            release(i);
+        }
+        prefetch(page + 1);
+        return picture;
+    }
+
+    // hands the page's sound over to the screen, which plays it and cancels it when it's done
+    public SoundStream takeSound(int page) {
+        SoundStream stream = streams[page];
+        streams[page] = null;
+        return stream;
+    }
+
+    private void release(int page) {
+        pictures.set(page, null);
+        if (streams[page] != null) {
+            streams[page].cancel();
+            streams[page] = null;
+        }
+    }
+
+    // lets go of every page, they are decoded again if they're shown again
+    public void release() {
+        for (int i = 0; i < pictures.size(); i++) {
+            release(i);
+        }
+    }
+
+    // about how much memory the decoded pages take
+    public long getBytes() {
+        long bytes = 0;
+        for (CompletableFuture<AnimatedPicture> picture : pictures) {
+            AnimatedPicture decoded = picture != null ? picture.getNow(null) : null;
+            if (decoded != null) {
+                bytes += decoded.getBytes();
+            }
+        }
+        return bytes;
+    }
+
+    // one line on how the pages shown so far got ready, e.g. for the console after the intro
+    public String getReport() {
+        StringBuilder report = new StringBuilder("intro pages (decode ms / ready ahead of click ms):");
+        long waited = 0;
+        for (int i = 0; i < shown.length; i++) {
+            if (!shown[i]) {
+                continue;
+            }
+            report.append(String.format(" %d: %.1f/%.0f", i + 1, decodeNanos[i] / 1e6, readyAhead[i] / 1e6));
+            waited += Math.max(0, -readyAhead[i]);
+        }
+        report.append(String.format(", waited %.1f ms in all", waited / 1e6));
+        return report.toString();
+    }
+}
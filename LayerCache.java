@@ -0,0 +1,156 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import javax.swing.ImageIcon;
+import javax.swing.SwingUtilities;
+
+// a picture that doesn't change from frame to frame (a screen's background plus any
+// fixed decoration) drawn once at the component's real size and then just copied.
+// it lives in video memory when it can, so it is made again if the size changes or
+// the graphics card throws it away. a layer that changes a little at a time (like the
+// bricks) can mark just the changed part, then only that part is painted again
+public class LayerCache {
+    // draws the layer's contents at the given size, only the clip needs to be right
+    public interface Painter {
+        void paint(Graphics2D g, int width, int height);
+    }
+
+    private final Painter painter;
+    private Image image;            // VolatileImage, or BufferedImage when there's no screen
+    private int width, height;
+    private boolean valid;
+    private Rectangle dirty = new Rectangle();  // part of a valid image to paint again
+    private boolean hasDirty;
+
+    public LayerCache(Painter painter) {
+        this.painter = painter;
+    }
+
+    // the usual case, one screen picture stretched over the whole component. the picture is
+    // asked for each time the layer is drawn again, so it can be released in between
+    public static LayerCache forPicture(final ScreenPicture picture, final Color fallback) {
+        return new LayerCache((g, width, height) -> {
+            ImageIcon icon = picture.get();
+            Image background = icon != null ? icon.getImage() : null;
+            if (background != null && background.getWidth(null) > 0) {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(background, 0, 0, width, height, null);
+            } else if (fallback != null) {
+                g.setColor(fallback);
+                g.fillRect(0, 0, width, height);
+            }
+        });
+    }
+
+    // call when whatever the painter draws has changed
+    public void invalidate() {
+        valid = false;
+    }
+
+    // call when only this part of the layer has changed
+    public void invalidate(int x, int y, int w, int h) {
+        if (!valid) {
+            return;
+        }
+        if (hasDirty) {
+            SwingUtilities.computeUnion(x, y, w, h, dirty);
+        } else {
+            dirty.setBounds(x, y, w, h);
+            hasDirty = true;
+        }
+    }
+
+    public void draw(Graphics g, Component component) {
+        int w = component.getWidth();
+        int h = component.getHeight();
+        if (painter == null || w <= 0 || h <= 0) {
+            return;
+        }
+
+        GraphicsConfiguration config = component.getGraphicsConfiguration();
+        if (config == null || GraphicsEnvironment.isHeadless()) {
+            drawBuffered(g, w, h);
+            return;
+        }
+
+        // a volatile image can lose its contents at any time, so check before and after using it
+        for (int attempt = 0; attempt < 3; attempt++) {
+            VolatileImage volatileImage = image instanceof VolatileImage ? (VolatileImage)image : null;
+            int status = volatileImage == null || width != w || height != h
+                ? VolatileImage.IMAGE_INCOMPATIBLE : volatileImage.validate(config);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                release();
+                volatileImage = config.createCompatibleVolatileImage(w, h, Transparency.OPAQUE);
+                image = volatileImage;
+                width = w;
+                height = h;
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                valid = false;
+            }
+
+            if (!valid) {
+                render(volatileImage.createGraphics());
+            } else if (hasDirty) {
+                renderDirty(volatileImage.createGraphics());
+            }
+            g.drawImage(volatileImage, 0, 0, null);
+            if (!volatileImage.contentsLost()) {
+                return;
+            }
+            valid = false;
+        }
+    }
+
+    private void drawBuffered(Graphics g, int w, int h) {
+        if (!(image instanceof BufferedImage) || width != w || height != h) {
+            release();
+            image = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            width = w;
+            height = h;
+            valid = false;
+        }
+        if (!valid) {
+            render(((BufferedImage)image).createGraphics());
+        } else if (hasDirty) {
+            renderDirty(((BufferedImage)image).createGraphics());
+        }
+        g.drawImage(image, 0, 0, null);
+    }
+
+    private void render(Graphics2D g) {
+        try {
+            painter.paint(g, width, height);
+        } finally {
+            g.dispose();
+        }
+        valid = true;
+        hasDirty = false;
+    }
+
+    private void renderDirty(Graphics2D g) {
+        try {
+            g.clipRect(dirty.x, dirty.y, dirty.width, dirty.height);
+            painter.paint(g, width, height);
+        } finally {
+            g.dispose();
+        }
+        hasDirty = false;
+    }
+
+    // about how much memory the cached image takes
+    public long getBytes() {
+        return image != null ? 4L * width * height : 0;
+    }
+
+    // frees the cached image, e.g. when its screen won't be shown for a while
+    public void release() {
+        if (image instanceof VolatileImage) {
+            ((VolatileImage)image).flush();
+        } else if (image != null) {
+            image.flush();
+        }
+        image = null;
+        valid = false;
+        hasDirty = false;
+    }
+}
@@ -0,0 +1,50 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+
+public class MenuScreen extends GameScreen {
+    public static final String[] PICTURES = { "MenuScreen.png" };
+    
+    private LayerCache background;
+    private Rectangle classicModeBounds;
+    private Rectangle timedModeBounds;
+    private Rectangle optionsButtonBounds;
+    private Rectangle howToPlayButtonBounds;
+    
+    public MenuScreen(BrickBreakerGame game) {
+        super(game);
+        
+        background = addLayer(LayerCache.forPicture(addPicture(PICTURES[0]), null));
+        
+        // buttons are part of the picture so we need bounds for them
+        classicModeBounds = new Rectangle(96, 29, 114, 204);
+        timedModeBounds = new Rectangle(204, 73, 341, 182);
+        howToPlayButtonBounds = new Rectangle(460, 20, 60, 60);
+        optionsButtonBounds = new Rectangle(520, 20, 60, 60);
+        
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (classicModeBounds.contains(e.getPoint())) {
+                    game.playClickSound();
+                    game.showScreen("game");
+                } else if (timedModeBounds.contains(e.getPoint())) {
+                    game.playClickSound();
+                    game.showScreen("game");
+                } else if (optionsButtonBounds.contains(e.getPoint())) {
+                    game.playClickSound();
+                    game.showScreen("options");
+                } else if (howToPlayButtonBounds.contains(e.getPoint())) {
+                    game.playClickSound();
+                    game.showScreen("howToPlay");
+                }
+            }
+        });
+    }
+    
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        background.draw(g, this);
+    }
+}
@@ -0,0 +1,74 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+
+public class OptionsScreen extends GameScreen {
+    public static final String[] PICTURES = { "SettingsScreen.png" };
+    
+    private LayerCache background;
+    private Rectangle backButtonBounds;
+    private JSlider musicVolumeSlider;
+    private int musicVolume = 75;
+    
+    public OptionsScreen(BrickBreakerGame game) {
+        super(game);
+        
+        background = addLayer(LayerCache.forPicture(addPicture(PICTURES[0]), null));
+        
+        // back arrow in the top right of the picture
+        backButtonBounds = new Rectangle(508, 38, 32, 32);
+        
+        setupVolumeSliders();
+        
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (backButtonBounds.contains(e.getPoint())) {
+                    game.playClickSound();
+                    saveSettings();
+                    game.showScreen("menu");
+                }
+            }
+        });
+    }
+    
+    private void setupVolumeSliders() {
+        musicVolumeSlider = new JSlider(JSlider.HORIZONTAL, 0, 100, musicVolume);
+        musicVolumeSlider.setMajorTickSpacing(25);
+        musicVolumeSlider.setPaintTicks(true);
+        musicVolumeSlider.setPaintLabels(true);
+        musicVolumeSlider.setBounds(125, 170, 303, 50);
+        musicVolumeSlider.setOpaque(false);
+        
+        musicVolumeSlider.addChangeListener(e -> {
+            musicVolume = musicVolumeSlider.getValue();
+            float dB = convertVolumeToDecibels(musicVolume);
+            game.setMusicVolume(dB);
+        });
+        
+        add(musicVolumeSlider);
+    }
+    
+    // slider goes from 0 to 100, 0 is silent
+    private float convertVolumeToDecibels(int volume) {
+        if (volume == 0) {
+            return -80.0f;
+        }
+        return (volume - 100) * 0.4f;
+    }
+    
+    @Override
+    public void onActivate() {
+        musicVolumeSlider.setValue(musicVolume);
+    }
+    
+    private void saveSettings() {
+        musicVolume = musicVolumeSlider.getValue();
+    }
+    
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        background.draw(g, this);
+    }
+}
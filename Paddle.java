@@ -0,0 +1,188 @@
+import java.awt.*;
+
+public class Paddle {
+    private static final int MEGA_WIDTH = 214; // width while the mega basket is active
+    private static final Color GLOW_COLOR = new Color(255, 255, 0, 50);
+    private static final Font TIMER_FONT = new Font("Arial", Font.BOLD, 10);
+
+    private int x, y;                       // position
+    private int width, height;              // dimensions
+    private int speed;                      // pixels moved per frame
+    private SpriteCache.Sprite normalSprite; // regular basket
+    private SpriteCache.Sprite megaSprite;   // mega basket
+    private SpriteCache.Sprite glow;         // drawn around the mega basket
+    // the sprites are looked up on the first draw rather than here, so setting up a game
+    // doesn't wait for the atlas the startup loader is still building (and headless games
+    // never build it at all)
+    private boolean spritesLooked;
+    private boolean movingLeft;
+    private boolean movingRight;
+    private boolean megaActive;             // whether the mega basket power-up is on
+    private int megaTimer;                  // frames left on the mega basket
+    private int gameWidth;                  // width of the play area
+    private int normalWidth;                // width to go back to after the mega basket
+
+    // reused by the bounds getters so the game loop makes no garbage
+    private final Rectangle bounds = new Rectangle();
+    private final Rectangle collisionBounds = new Rectangle();
+    private final Rectangle collectionBounds = new Rectangle();
+
+    // countdown text, a sprite so the frame doesn't switch fonts (see SpriteCache.getText),
+    // only looked up again when the second changes
+    private int shownSeconds = -1;
+    private SpriteCache.Sprite shownSecondsSprite;
+    private int timerAscent;
+
+    public Paddle(int x, int y, int width, int height, int gameWidth) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.normalWidth = width;
+        this.gameWidth = gameWidth;
+        this.speed = 8;
+        this.movingLeft = false;
+        this.movingRight = false;
+        this.megaActive = false;
+        this.megaTimer = 0;
+    }
+
+    public void move() {
+        if (movingLeft) {
+            x -= speed;
+            if (x < 0) {
+                x = 0;
+            }
+        }
+
+        if (movingRight) {
+            x += speed;
+            if (x + width > gameWidth) {
+                x = gameWidth - width;
+            }
+        }
+
+        // count down the mega basket
+        if (megaActive) {
+            megaTimer--;
+            if (megaTimer <= 0) {
+                deactivateMegaBasket();
+            }
+        }
+    }
+
+    public void activateMegaBasket(int duration) {
+        // already active, just extend the timer
+        if (megaActive) {
+            megaTimer = Math.max(megaTimer, duration);
+            return;
+        }
+
+        megaActive = true;
+        megaTimer = duration;
+
+        // grow around the current center
+        int center = x + width / 2;
+        width = MEGA_WIDTH;
+        x = center - width / 2;
+        keepOnScreen();
+    }
+
+    public void deactivateMegaBasket() {
+        if (!megaActive) {
+            return;
+        }
+
+        megaActive = false;
+
+        // shrink back around the current center
+        int center = x + width / 2;
+        width = normalWidth;
+        x = center - width / 2;
+        keepOnScreen();
+    }
+
+    // the play area can change size, e.g. for the large board
+    public void setGameWidth(int gameWidth) {
+        this.gameWidth = gameWidth;
+        keepOnScreen();
+    }
+
+    private void keepOnScreen() {
+        if (x < 0) {
+            x = 0;
+        } else if (x + width > gameWidth) {
+            x = gameWidth - width;
+        }
+    }
+
+    public void reset(int x, int y) {
+        this.x = x;
+        this.y = y;
+        this.width = normalWidth;
+        this.movingLeft = false;
+        this.movingRight = false;
+        if (megaActive) {
+            megaActive = false;
+            megaTimer = 0;
+        }
+    }
+
+    // the bounds getters hand back the same rectangle every call, copy it to keep it
+    public Rectangle getBounds() {
+        bounds.setBounds(x, y, width, height);
+        return bounds;
+    }
+
+    // area the ball bounces off, slightly narrower than the basket
+    public Rectangle getCollisionBounds() {
+        collisionBounds.setBounds(x + 5, y, width - 10, height / 2);
+        return collisionBounds;
+    }
+
+    // area that catches falling power-ups
+    public Rectangle getCollectionBounds() {
+        collectionBounds.setBounds(x, y + height / 2, width, height / 2);
+        return collectionBounds;
+    }
+
+    public void draw(Graphics g) {
+        if (!spritesLooked) {
+            normalSprite = SpriteCache.get().getSprite("Basket.png", normalWidth, height);
+            megaSprite = SpriteCache.get().getSprite("MegaBasket.png", MEGA_WIDTH, height);
+            glow = SpriteCache.get().getShade(GLOW_COLOR, MEGA_WIDTH + 10, height + 10);
+            timerAscent = SpriteCache.get().getAscent(TIMER_FONT);
+            spritesLooked = true;
+        }
+        SpriteCache.Sprite sprite = megaActive ? megaSprite : normalSprite;
+        if (sprite != null) {
+            sprite.draw(g, x, y, width, height);
+        }
+
+        if (megaActive) {
+            // glow around the basket
+            glow.draw(g, x - 5, y - 5, width + 10, height + 10);
+
+            // seconds left on the power-up
+            int secondsLeft = megaTimer / 60;
+            if (secondsLeft != shownSeconds) {
+                shownSeconds = secondsLeft;
+                shownSecondsSprite = SpriteCache.get().getText(Integer.toString(secondsLeft),
+                                                               TIMER_FONT, Color.WHITE);
+            }
+            shownSecondsSprite.draw(g, x + width / 2 - 3, y - 5 - timerAscent);
+        }
+    }
+
+    // getters and setters
+    public int getX() { return x; }
+    public int getY() { return y; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getSpeed() { return speed; }
+    public void setMovingLeft(boolean movingLeft) { this.movingLeft = movingLeft; }
+    public void setMovingRight(boolean movingRight) { this.movingRight = movingRight; }
+    public boolean isMovingLeft() { return movingLeft; }
+    public boolean isMovingRight() { return movingRight; }
+    public boolean isMegaBasketActive() { return megaActive; }
+}
@@ -0,0 +1,5 @@
+// whatever decides which keys are down each tick: the keyboard (GameInput) or the autopilot
+public interface PaddleController {
+    // the keys for the next tick as GameInput bits, called once per tick
+    int nextKeys(GameSimulation simulation);
+}
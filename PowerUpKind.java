@@ -0,0 +1,94 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// everything that can fall out of a broken brick. what catching one does is looked up from
+// its effect, and which one a brick drops from the DROPS table, so the collection path never
+// compares strings
+public enum PowerUpKind {
+    APPLE(FruitKind.APPLE, Effect.FRUIT, 10, "FruitSound.wav", "Apple.png", new Color(255, 0, 0)),
+    ORANGE(FruitKind.ORANGE, Effect.FRUIT, 20, "FruitSound.wav", null, new Color(255, 140, 0)),
+    PEAR(FruitKind.PEAR, Effect.FRUIT, 30, "FruitSound.wav", null, new Color(180, 220, 40)),
+    BLUEBERRY(FruitKind.BLUEBERRY, Effect.FRUIT, 30, "FruitSound.wav", "Blueberry.png", new Color(70, 70, 220)),
+    EXTRA_LIFE(FruitKind.HEART, Effect.EXTRA_LIFE, 0, "HeartSound.wav", "Heart.png", new Color(255, 50, 50)),
+    MEGA_BASKET(FruitKind.PLUS, Effect.MEGA_BASKET, 0, "MegaBasketSound.wav", "MegaBasket.png", new Color(50, 200, 50)),
+    MULTI_BALL(FruitKind.CHERRY, Effect.MULTI_BALL, 0, null, null, new Color(240, 240, 240));
+
+    // what catching one does
+    public enum Effect { FRUIT, EXTRA_LIFE, MEGA_BASKET, MULTI_BALL }
+
+    private static final PowerUpKind[] BY_ID = values();
+
+    // what each kind of brick drops, by FruitKind id (null for bricks that never drop anything)
+    private static final PowerUpKind[] DROPS = new PowerUpKind[FruitKind.values().length];
+    static {
+        for (PowerUpKind kind : BY_ID) {
+            DROPS[kind.droppedBy.getId()] = kind;
+        }
+    }
+
+    private final FruitKind droppedBy;  // the brick it falls out of, also the fruit it counts as
+    private final Effect effect;
+    private final int points;           // score for catching it
+    private final String sound;         // played when it is caught, null for none yet
+    private final String imageFile;     // falling sprite, null for the kinds with no art yet
+    private final Color color;          // fallback when the sprite is missing
+
+    PowerUpKind(FruitKind droppedBy, Effect effect, int points, String sound, String imageFile, Color color) {
+        this.droppedBy = droppedBy;
+        this.effect = effect;
+        this.points = points;
+        this.sound = sound;
+        this.imageFile = imageFile;
+        this.color = color;
+    }
+
+    public static PowerUpKind fromId(int id) {
+        return BY_ID[id];
+    }
+
+    // what a broken brick of this kind drops, if its drop chance comes up
+    public static PowerUpKind droppedBy(FruitKind brick) {
+        return DROPS[brick.getId()];
+    }
+
+    // the fallback shapes for a missing image, drawn once into a sprite. fillOval makes a
+    // scratch path on every call, so they are cheaper to blit than to draw each frame
+    public SpriteCache.Sprite makeFallbackSprite(int width, int height) {
+        BufferedImage image = SpriteCache.createImage(width, height);
+        Graphics2D g = image.createGraphics();
+        drawFallback(g, 0, 0, width, height);
+        g.dispose();
+        return new SpriteCache.Sprite(image, 0, 0, width, height);
+    }
+
+    private void drawFallback(Graphics g, int x, int y, int width, int height) {
+        g.setColor(color);
+        switch (this) {
+            case MEGA_BASKET:
+                g.fillRect(x, y, width, height);
+                break;
+            case PEAR:
+                g.fillOval(x, y, width / 2, height);
+                g.fillOval(x + width / 2, y, width / 2, height);
+                break;
+            case MULTI_BALL:
+                // three little balls
+                g.fillOval(x + width / 4, y, width / 2, height / 2);
+                g.fillOval(x, y + height / 2, width / 2, height / 2);
+                g.fillOval(x + width / 2, y + height / 2, width / 2, height / 2);
+                break;
+            default:
+                g.fillOval(x, y, width, height);
+                break;
+        }
+    }
+
+    // getters
+    public int getId() { return ordinal(); }
+    public FruitKind getDroppedBy() { return droppedBy; }
+    public Effect getEffect() { return effect; }
+    public int getPoints() { return points; }
+    public String getSound() { return sound; }
+    public String getImageFile() { return imageFile; }
+    public Color getColor() { return color; }
+}
@@ -0,0 +1,108 @@
+import java.awt.*;
+
+// every falling power-up, stored as plain arrays up to a fixed capacity so a tick never
+// allocates one. the live ones are packed at the front: removing one moves the last into
+// its slot instead of shifting the rest down. a drop that comes while the pool is full is
+// counted and left out, so the overflow count says whether the capacity is big enough
+public class PowerUpPool {
+    public static final int DEFAULT_CAPACITY = 256;
+    public static final int SIZE = 30;          // power-ups are square
+    public static final int FALL_SPEED = 3;     // pixels per tick
+
+    private final int capacity;
+    private int count;
+
+    // per power-up state, indexed 0 to count - 1
+    private final int[] x, y;       // top-left corner
+    private final int[] speed;
+    private final byte[] kind;      // PowerUpKind id
+
+    // how hard the pool has been pushed since it was made
+    private int peak;
+    private long added;
+    private long overflowed;
+
+    // one sprite per kind at the power-up size, looked up the first time they are drawn (the
+    // kind's fallback shapes when its image is missing)
+    private SpriteCache.Sprite[] sprites;
+
+    public PowerUpPool(int capacity) {
+        this.capacity = capacity;
+        x = new int[capacity];
+        y = new int[capacity];
+        speed = new int[capacity];
+        kind = new byte[capacity];
+    }
+
+    // starts a power-up falling from (x, y), false if there was no room for it
+    public boolean add(int px, int py, PowerUpKind powerUpKind) {
+        if (count == capacity) {
+            overflowed++;
+            return false;
+        }
+        x[count] = px;
+        y[count] = py;
+        speed[count] = FALL_SPEED;
+        kind[count] = (byte)powerUpKind.getId();
+        count++;
+        added++;
+        peak = Math.max(peak, count);
+        return true;
+    }
+
+    // moves the last power-up into this slot, so while looping remove from the back forwards
+    public void remove(int i) {
+        count--;
+        x[i] = x[count];
+        y[i] = y[count];
+        speed[i] = speed[count];
+        kind[i] = kind[count];
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    // one tick of falling for all of them
+    public void move() {
+        for (int i = 0; i < count; i++) {
+            y[i] += speed[i];
+        }
+    }
+
+    // whether a power-up overlaps a rectangle, the same test as Rectangle.intersects
+    public boolean overlaps(int i, Rectangle area) {
+        return x[i] < area.x + area.width && x[i] + SIZE > area.x
+            && y[i] < area.y + area.height && y[i] + SIZE > area.y;
+    }
+
+    // draws every power-up, each moved up by yOffset times its speed (for drawing between ticks)
+    public void draw(Graphics g, double yOffset) {
+        if (sprites == null) {
+            PowerUpKind[] kinds = PowerUpKind.values();
+            sprites = new SpriteCache.Sprite[kinds.length];
+            for (PowerUpKind k : kinds) {
+                SpriteCache.Sprite sprite = SpriteCache.get().getSprite(k.getImageFile(), SIZE, SIZE);
+                if (sprite == null) {
+                    sprite = k.makeFallbackSprite(SIZE, SIZE);
+                }
+                sprites[k.getId()] = sprite;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int drawY = y[i] - (int)Math.round(speed[i] * yOffset);
+            sprites[kind[i]].draw(g, x[i], drawY);
+        }
+    }
+
+    // getters
+    public int getCount() { return count; }
+    public int getCapacity() { return capacity; }
+    public int getX(int i) { return x[i]; }
+    public int getY(int i) { return y[i]; }
+    public int getSpeed(int i) { return speed[i]; }
+    public PowerUpKind getKind(int i) { return PowerUpKind.fromId(kind[i]); }
+    public int getPeak() { return peak; }
+    public long getAdded() { return added; }
+    public long getOverflowed() { return overflowed; }
+}
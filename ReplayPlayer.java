@@ -0,0 +1,147 @@
+import java.io.*;
+
+// reads a file made by ReplayRecorder and feeds it back into a simulation one tick at a time.
+// run on its own it plays the whole game headless as fast as it can and checks the end
+// state matches the recording:
+//
+//   java -Djava.awt.headless=true ReplayPlayer game.bbr
+public class ReplayPlayer {
+    private DataInputStream in;
+    private long seed;
+    private int viewWidth, viewHeight;
+    private int boardRows, boardCols;
+
+    private int runKeys;
+    private int runTicks;           // ticks left in the current run
+    private boolean finished;
+
+    // filled in if the recording got to the end of its game
+    private boolean hasEnd;
+    private long endTicks;
+    private long endChecksum;
+
+    public ReplayPlayer(String filename) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(new FileInputStream(filename)));
+        if (in.readInt() != ReplayRecorder.MAGIC) {
+            in.close();
+            throw new IOException(filename + " is not a replay");
+        }
+        int version = in.readUnsignedByte();
+        if (version != ReplayRecorder.VERSION) {
+            in.close();
+            throw new IOException("can't read replay version " + version);
+        }
+        seed = in.readLong();
+        viewWidth = in.readInt();
+        viewHeight = in.readInt();
+        boardRows = in.readInt();
+        boardCols = in.readInt();
+    }
+
+    // a simulation set up exactly like the recorded one, ready for the first tick
+    public GameSimulation createSimulation() {
+        GameSimulation simulation = new GameSimulation(viewWidth, viewHeight, boardRows, boardCols);
+        simulation.reset(seed);
+        return simulation;
+    }
+
+    // keys for the next tick, or -1 once the recording runs out
+    public int nextKeys() {
+        while (runTicks == 0) {
+            if (finished || !readRun()) {
+                finished = true;
+                return -1;
+            }
+        }
+        runTicks--;
+        return runKeys;
+    }
+
+    private boolean readRun() {
+        try {
+            int keys = in.read();
+            if (keys < 0) {
+                return false;
+            }
+            if (keys == ReplayRecorder.END) {
+                endTicks = in.readLong();
+                endChecksum = in.readLong();
+                hasEnd = true;
+                return false;
+            }
+            runKeys = keys;
+            runTicks = readVarint();
+            return true;
+        } catch (IOException e) {
+            // a cut off file plays as far as it goes
+            System.out.println("error reading replay: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private int readVarint() throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    public void close() {
+        try {
+            in.close();
+        } catch (IOException e) {
+            System.out.println("error closing replay: " + e.getMessage());
+        }
+    }
+
+    // getters
+    public long getSeed() { return seed; }
+    public boolean hasEnd() { return hasEnd; }
+    public long getEndTicks() { return endTicks; }
+    public long getEndChecksum() { return endChecksum; }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("usage: ReplayPlayer <replay file>");
+            return;
+        }
+
+        ReplayPlayer player;
+        try {
+            player = new ReplayPlayer(args[0]);
+        } catch (IOException e) {
+            System.out.println("error opening replay: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        GameSimulation simulation = player.createSimulation();
+        long start = System.nanoTime();
+        for (int keys = player.nextKeys(); keys >= 0; keys = player.nextKeys()) {
+            simulation.tick(keys);
+        }
+        long nanos = System.nanoTime() - start;
+        player.close();
+
+        System.out.println("seed " + player.getSeed() + ": " + simulation.getTickCount() + " ticks, wave "
+                           + simulation.getCurrentWave() + ", " + simulation.getScore() + " points, "
+                           + simulation.getLives() + " lives");
+        System.out.println(String.format("replayed in %.1f ms (%.0f ticks/s)", nanos / 1e6,
+                                         simulation.getTickCount() / (nanos / 1e9)));
+        if (!player.hasEnd()) {
+            System.out.println("recording has no end state to check against");
+            return;
+        }
+        if (simulation.getTickCount() == player.getEndTicks()
+                && ReplayRecorder.checksum(simulation) == player.getEndChecksum()) {
+            System.out.println("end state matches the recording");
+        } else {
+            System.out.println("MISMATCH: replay ended differently from the recording");
+            System.exit(1);
+        }
+    }
+}
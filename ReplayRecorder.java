@@ -0,0 +1,104 @@
+import java.io.*;
+
+// writes a game to a small binary file that ReplayPlayer can play back tick for tick.
+// the simulation only depends on its seed, its size and the keys held each tick, so
+// that is all that gets stored:
+//
+//   int   MAGIC ("BBRP")
+//   byte  VERSION
+//   long  seed
+//   int   view width, view height, board rows, board cols
+//   runs  of (byte keys, varint ticks) - the same keys held for that many ticks
+//   byte  END, then long ticks played and long checksum of the final state
+//
+// a file without the END part (the game never finished) still plays back as far as it goes
+public class ReplayRecorder {
+    public static final int MAGIC = 0x42425250;
+    public static final int VERSION = 1;
+    public static final int END = 0xFF;
+
+    private DataOutputStream out;
+    private int runKeys = -1;       // keys of the run being counted, -1 before the first tick
+    private int runTicks;
+
+    // starts a file for a game that was just reset and hasn't ticked yet
+    public ReplayRecorder(String filename, GameSimulation simulation) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(simulation.getSeed());
+        out.writeInt(simulation.getViewWidth());
+        out.writeInt(simulation.getViewHeight());
+        out.writeInt(simulation.getBoardRows());
+        out.writeInt(simulation.getBoardCols());
+    }
+
+    // called by the simulation with the keys of every tick
+    public void record(int keys) {
+        if (keys == runKeys) {
+            runTicks++;
+            return;
+        }
+        writeRun();
+        runKeys = keys;
+        runTicks = 1;
+    }
+
+    // finishes the file with the final state so playback can check it ended up the same
+    public void close(GameSimulation simulation) {
+        if (out == null) {
+            return;
+        }
+        try {
+            writeRun();
+            out.writeByte(END);
+            out.writeLong(simulation.getTickCount());
+            out.writeLong(checksum(simulation));
+            out.close();
+        } catch (IOException e) {
+            System.out.println("error writing replay: " + e.getMessage());
+        }
+        out = null;
+    }
+
+    private void writeRun() {
+        if (out == null || runKeys < 0) {
+            return;
+        }
+        try {
+            out.writeByte(runKeys);
+            writeVarint(runTicks);
+        } catch (IOException e) {
+            System.out.println("error writing replay: " + e.getMessage());
+            out = null;
+        }
+    }
+
+    // 7 bits at a time, low bits first, so short runs take one byte
+    private void writeVarint(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    // everything that would drift if a replay went differently, folded into one number
+    public static long checksum(GameSimulation simulation) {
+        BallSet balls = simulation.getBalls();
+        long hash = simulation.getSeed();
+        hash = hash * 31 + simulation.getTickCount();
+        hash = hash * 31 + simulation.getScore();
+        hash = hash * 31 + simulation.getLives();
+        hash = hash * 31 + simulation.getCurrentWave();
+        hash = hash * 31 + simulation.getPaddle().getX();
+        hash = hash * 31 + simulation.getBricks().getLiveCount();
+        for (int i = 0; i < balls.getCount(); i++) {
+            hash = hash * 31 + Double.doubleToLongBits(balls.getX(i));
+            hash = hash * 31 + Double.doubleToLongBits(balls.getY(i));
+            hash = hash * 31 + Double.doubleToLongBits(balls.getDx(i));
+            hash = hash * 31 + Double.doubleToLongBits(balls.getDy(i));
+        }
+        return hash;
+    }
+}
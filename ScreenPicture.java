@@ -0,0 +1,42 @@
+import java.util.concurrent.CompletableFuture;
+import javax.swing.ImageIcon;
+
+// a picture one screen shows, decoded in the background by the AssetLoader. the screen holds
+// on to it while it might be shown; release lets go, and the next get waits for the loader
+// again (instant if the gc hasn't taken the picture back in the meantime)
+public class ScreenPicture {
+    private final AssetLoader loader;
+    private final String filename;
+    private CompletableFuture<ImageIcon> load;
+
+    public ScreenPicture(AssetLoader loader, String filename) {
+        this.loader = loader;
+        this.filename = filename;
+        load = loader.icon(filename);
+    }
+
+    // waits for the picture, null when it is missing
+    public ImageIcon get() {
+        if (load == null) {
+            load = loader.icon(filename);
+        }
+        return AssetLoader.await(load);
+    }
+
+    // the picture if it is already decoded, without waiting
+    public ImageIcon getIfLoaded() {
+        return load != null ? load.getNow(null) : null;
+    }
+
+    public void release() {
+        load = null;
+    }
+
+    // about how much memory the decoded picture takes, 0 while it isn't held
+    public long getBytes() {
+        ImageIcon icon = getIfLoaded();
+        return icon != null ? 4L * Math.max(0, icon.getIconWidth()) * Math.max(0, icon.getIconHeight()) : 0;
+    }
+
+    public String getFilename() { return filename; }
+}
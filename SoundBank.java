@@ -0,0 +1,166 @@
+import javax.sound.sampled.*;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class SoundBank {
+    // every sound effect we preload at startup
+    public static final String[] SOUND_EFFECTS = {
+        "BrickSound.wav",
+        "FruitSound.wav",
+        "HeartSound.wav",
+        "MegaBasketSound.wav",
+        "PeachSound.wav",
+        "ClickSound.wav",
+        "knock.wav"
+    };
+
+    // decoded pcm for each loaded sound, keyed by file name. sounds are decoded on the startup
+    // loader's threads while the game is already playing them, so the map is a concurrent one
+    // and a missing file is stored as MISSING (the map can't hold nulls)
+    private static final short[] MISSING = new short[0];
+    private ConcurrentHashMap<String, short[]> sounds;
+    private AudioMixer mixer;
+
+    private int missingRequests = 0;
+
+    public SoundBank() {
+        this(new AudioMixer());
+        mixer.start();
+    }
+
+    // plays through a mixer the caller looks after, e.g. an offline one in the sound benchmark
+    SoundBank(AudioMixer mixer) {
+        sounds = new ConcurrentHashMap<>();
+        this.mixer = mixer;
+    }
+
+    // decodes every default sound effect once
+    public void loadAll() {
+        for (String filename : SOUND_EFFECTS) {
+            load(filename);
+        }
+    }
+
+    // decodes a wav asset into the mixer's output format, missing ones are only reported once
+    public void load(String filename) {
+        if (sounds.containsKey(filename)) {
+            return;
+        }
+
+        GameEvents.AssetLoad event = new GameEvents.AssetLoad();
+        event.begin();
+        short[] data = null;
+        try {
+            InputStream in = AssetArchive.get().open(filename);
+            if (in != null) {
+                AudioInputStream audioStream = AudioSystem.getAudioInputStream(in);
+                data = AudioMixer.convert(audioStream);
+                audioStream.close();
+            }
+        } catch (Exception e) {
+            System.out.println("error loading sound " + filename + ": " + e.getMessage());
+        }
+        sounds.put(filename, data != null ? data : MISSING);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.file = filename;
+            event.kind = "sound";
+            event.found = data != null;
+            event.commit();
+        }
+    }
+
+    // starts a preloaded sound effect, never touches the disk and never waits on the line.
+    // a sound that is still being decoded is skipped like a missing one
+    public void play(String filename) {
+        // brick hits play from inside the tick, so the event is only made while it is recorded
+        GameEvents.SoundPlay event = null;
+        if (GameEvents.SOUND_PLAY.isEnabled()) {
+            event = new GameEvents.SoundPlay();
+            event.begin();
+        }
+        short[] data = get(filename);
+        if (data == null) {
+            missingRequests++;
+        } else {
+            mixer.play(data, AudioMixer.SFX_BUS, false);
+        }
+
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.file = filename;
+                event.found = data != null;
+                event.commit();
+            }
+        }
+    }
+
+    // loops a sound on the music bus, replacing whatever music was playing. music is streamed
+    // so the whole track never has to be decoded up front
+    public void playMusic(String filename) {
+        mixer.stopBus(AudioMixer.MUSIC_BUS);
+        SoundStream stream = new SoundStream(filename, true);
+        if (stream.isFound()) {
+            mixer.play(stream, AudioMixer.MUSIC_BUS);
+        }
+    }
+
+    // opens a long sound and starts decoding its first chunks without playing it, so it can
+    // start straight away when it is needed
+    public SoundStream prefetch(String filename) {
+        return new SoundStream(filename, false);
+    }
+
+    // plays a stream from prefetch on the voice bus, cancel it to stop it
+    public void playStream(SoundStream stream) {
+        GameEvents.SoundPlay event = null;
+        if (GameEvents.SOUND_PLAY.isEnabled()) {
+            event = new GameEvents.SoundPlay();
+            event.begin();
+        }
+        if (stream.isFound()) {
+            mixer.play(stream, AudioMixer.VOICE_BUS);
+        } else {
+            missingRequests++;
+        }
+
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.file = stream.getFilename();
+                event.found = stream.isFound();
+                event.commit();
+            }
+        }
+    }
+
+    private short[] get(String filename) {
+        short[] data = sounds.get(filename);
+        return data != MISSING ? data : null;
+    }
+
+    public void setMusicVolume(float decibels) {
+        mixer.setBusVolume(AudioMixer.MUSIC_BUS, decibels);
+    }
+
+    public void setEffectsVolume(float decibels) {
+        mixer.setBusVolume(AudioMixer.SFX_BUS, decibels);
+    }
+
+    // stops the mixer, called when the game shuts down
+    public void close() {
+        mixer.close();
+        sounds.clear();
+    }
+
+    // short summary of how hard the voice pool is being pushed
+    public String getSaturationReport() {
+        return mixer.getSaturationReport() + ", " + missingRequests + " missing";
+    }
+
+    // getters
+    public AudioMixer getMixer() { return mixer; }
+    public int getActiveVoices() { return mixer.getActiveVoices(); }
+}
@@ -0,0 +1,299 @@
+import javax.sound.sampled.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+// a long sound (a line of dialogue, the music) played a chunk at a time instead of being
+// decoded whole before it can start. a decoder thread reads the wav straight out of the asset
+// archive's mapping into two small chunks, and the mixer plays one while the other is refilled.
+// a stream starts decoding as soon as it is made, so one made a line early (see
+// SoundBank.prefetch) has its first chunks ready before it is played. cancel drops it on the
+// mixer's next block
+public class SoundStream {
+    // ~93 ms per chunk, plenty of time for the decoder to refill one while the other plays
+    private static final int CHUNK_FRAMES = 4096;
+    private static final int CHANNELS = AudioMixer.CHANNELS;
+
+    // one thread decodes every stream, a chunk takes well under a millisecond. it sleeps until
+    // a stream asks for a fill, asking is a flag and an unpark so the mixer never allocates
+    private static final List<SoundStream> OPEN = new CopyOnWriteArrayList<>();
+    private static final Thread DECODER = startDecoder();
+
+    private final String filename;
+    private final boolean looping;
+    private final boolean found;
+    private volatile boolean wanted = false;   // set when the decoder should look at this stream
+
+    // decoder state, only touched on the decoder thread
+    private InputStream source;
+    private AudioInputStream audio;
+    private byte[] sourceBytes;      // raw source frames read a chunk's worth at a time
+    private int sourceOffset, sourceLength;
+    private int frameSize;
+    private int sourceChannels;
+    private boolean sourceBigEndian;
+    private double step;             // source frames per output frame
+    private double phase;            // how far between the last and next source frames
+    private short lastLeft, lastRight;
+    private short nextLeft, nextRight;
+    private boolean producedSinceOpen;      // whether the file gave any samples since (re)opening
+
+    // the two chunks. the decoder fills chunk (written % 2) while written - read < 2 and the
+    // mixer plays chunk (read % 2) while read < written, so neither ever waits on the other
+    private final short[][] chunks = new short[2][CHUNK_FRAMES * CHANNELS];
+    private final int[] chunkLength = new int[2];
+    private volatile long written = 0;
+    private volatile long read = 0;
+    private volatile boolean ended = false;
+    private volatile boolean cancelled = false;
+
+    // mixer state
+    private int position = 0;
+    private int underruns = 0;
+
+    public SoundStream(String filename, boolean looping) {
+        this.filename = filename;
+        this.looping = looping;
+        // only looks the asset up in the archive index here, the decoding starts on the decoder
+        source = AssetArchive.get().open(filename);
+        found = source != null;
+        if (found) {
+            OPEN.add(this);
+            requestFill();
+        } else {
+            ended = true;
+        }
+    }
+
+    // stops the stream for good, the mixer lets go of it on its next block
+    public void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        requestFill();
+    }
+
+    // wakes the decoder to top this stream up (or close it once it's cancelled)
+    private void requestFill() {
+        wanted = true;
+        LockSupport.unpark(DECODER);
+    }
+
+    private static Thread startDecoder() {
+        Thread thread = new Thread(SoundStream::decode, "sound streamer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY - 1);
+        thread.start();
+        return thread;
+    }
+
+    // the decoder thread, fills every stream that asked and lets go of the ones that are done.
+    // an unpark that comes in while it is busy makes the next park return straight away, so a
+    // request is never missed
+    private static void decode() {
+        while (true) {
+            // backwards, so removing one doesn't skip another. only this thread removes
+            for (int i = OPEN.size() - 1; i >= 0; i--) {
+                SoundStream stream = OPEN.get(i);
+                if (stream.wanted) {
+                    stream.wanted = false;
+                    stream.fill();
+                }
+                if (stream.ended || stream.cancelled) {
+                    OPEN.remove(i);
+                }
+            }
+            LockSupport.park();
+        }
+    }
+
+    // decodes chunks until both are full, runs on the decoder thread
+    private void fill() {
+        try {
+            while (!cancelled && !ended && written - read < 2) {
+                int slot = (int)(written & 1);
+                int length = decodeChunk(chunks[slot]);
+                if (length > 0) {
+                    chunkLength[slot] = length;
+                    written++;
+                    producedSinceOpen = true;
+                }
+                if (length < chunks[slot].length) {
+                    // the end of the file. one that ends right on a chunk boundary comes back
+                    // empty here, so it loops as long as it gave anything at all since it opened
+                    if (looping && producedSinceOpen && reopen()) {
+                        continue;
+                    }
+                    ended = true;
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("error streaming sound " + filename + ": " + e.getMessage());
+            ended = true;
+        }
+        if (ended || cancelled) {
+            closeSource();
+        }
+    }
+
+    // fills a chunk with interleaved stereo at the output rate, returns how many samples it wrote
+    private int decodeChunk(short[] chunk) throws IOException {
+        if (audio == null) {
+            openAudio();
+        }
+        int count = 0;
+        while (count < chunk.length) {
+            // the same linear interpolation AudioMixer.convert does, carried across chunks
+            if (phase >= 1.0) {
+                if (!readFrame()) {
+                    break;
+                }
+                lastLeft = nextLeft;
+                lastRight = nextRight;
+                takeFrame();
+                phase -= 1.0;
+                continue;
+            }
+            chunk[count++] = (short)(lastLeft + (nextLeft - lastLeft) * phase);
+            chunk[count++] = (short)(lastRight + (nextRight - lastRight) * phase);
+            phase += step;
+        }
+        return count;
+    }
+
+    private void openAudio() throws IOException {
+        try {
+            audio = AudioSystem.getAudioInputStream(source);
+        } catch (UnsupportedAudioFileException e) {
+            throw new IOException(e.getMessage());
+        }
+        AudioFormat format = audio.getFormat();
+        // let javax.sound handle anything that isn't already 16 bit signed pcm
+        if (format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED || format.getSampleSizeInBits() != 16) {
+            AudioFormat pcm = new AudioFormat(format.getSampleRate(), 16, format.getChannels(), true, false);
+            audio = AudioSystem.getAudioInputStream(pcm, audio);
+            format = pcm;
+        }
+        sourceChannels = format.getChannels();
+        sourceBigEndian = format.isBigEndian();
+        frameSize = 2 * sourceChannels;
+        if (sourceBytes == null || sourceBytes.length != CHUNK_FRAMES * frameSize) {
+            sourceBytes = new byte[CHUNK_FRAMES * frameSize];
+        }
+        // nothing read yet, the first readFrame moves onto frame 0
+        sourceOffset = -frameSize;
+        sourceLength = 0;
+        step = format.getSampleRate() / AudioMixer.SAMPLE_RATE;
+        // the first frame is the one the next read moves on from
+        nextLeft = 0;
+        nextRight = 0;
+        if (readFrame()) {
+            takeFrame();
+        }
+        phase = 1.0;
+    }
+
+    private void takeFrame() {
+        nextLeft = readSample(0);
+        nextRight = sourceChannels > 1 ? readSample(2) : nextLeft;
+    }
+
+    // moves on to the next source frame, false at the end of the file
+    private boolean readFrame() throws IOException {
+        sourceOffset += frameSize;
+        if (sourceOffset + frameSize <= sourceLength) {
+            return true;
+        }
+        // keep any partial frame and read the next lot behind it
+        int kept = Math.max(0, sourceLength - sourceOffset);
+        System.arraycopy(sourceBytes, sourceOffset, sourceBytes, 0, kept);
+        sourceOffset = 0;
+        sourceLength = kept;
+        while (sourceLength < frameSize) {
+            int n = audio.read(sourceBytes, sourceLength, sourceBytes.length - sourceLength);
+            if (n < 0) {
+                return false;
+            }
+            sourceLength += n;
+        }
+        return true;
+    }
+
+    private short readSample(int offset) {
+        int at = sourceOffset + offset;
+        if (sourceBigEndian) {
+            return (short)((sourceBytes[at] << 8) | (sourceBytes[at + 1] & 0xff));
+        }
+        return (short)((sourceBytes[at + 1] << 8) | (sourceBytes[at] & 0xff));
+    }
+
+    // starts the file over for a looping stream, the asset is only a view of the mapping so
+    // this doesn't read anything until the next chunk is decoded
+    private boolean reopen() {
+        closeSource();
+        producedSinceOpen = false;
+        source = AssetArchive.get().open(filename);
+        return source != null;
+    }
+
+    private void closeSource() {
+        try {
+            if (audio != null) {
+                audio.close();
+            } else if (source != null) {
+                source.close();
+            }
+        } catch (Exception e) {
+            System.out.println("error closing sound " + filename + ": " + e.getMessage());
+        }
+        audio = null;
+        source = null;
+    }
+
+    // adds the next block of the stream into the mixer's buffer, only called by the mixer.
+    // returns false once the stream is finished or cancelled. when the decoder hasn't caught
+    // up the rest of the block is left silent and the stream carries on next block
+    boolean mixInto(int[] mix, float gain) {
+        int i = 0;
+        while (i < mix.length) {
+            if (cancelled) {
+                return false;
+            }
+            // ended has to be read before written, once it is set written won't move again
+            boolean done = ended;
+            long next = read;
+            if (next == written) {
+                if (done) {
+                    return false;
+                }
+                if (next > 0) {
+                    underruns++;
+                }
+                return true;
+            }
+            int slot = (int)(next & 1);
+            short[] chunk = chunks[slot];
+            int length = chunkLength[slot];
+            int count = Math.min(length - position, mix.length - i);
+            for (int n = 0; n < count; n++) {
+                mix[i++] += (int)(chunk[position++] * gain);
+            }
+            if (position == length) {
+                position = 0;
+                read = next + 1;
+                requestFill();
+            }
+        }
+        return true;
+    }
+
+    // getters
+    public String getFilename() { return filename; }
+    public boolean isFound() { return found; }
+    public boolean isCancelled() { return cancelled; }
+    public boolean isReady() { return written > 0 || ended; }
+    public int getUnderruns() { return underruns; }
+}
@@ -0,0 +1,271 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import javax.imageio.ImageIO;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.swing.ImageIcon;
+
+public class SpriteCache {
+    // every sprite the game draws, at the size it is drawn so blits never have to scale
+    private static final Object[][] MANIFEST = {
+        // brick faces
+        {"AppleBrick.png", 59, 29},
+        {"BlueberryBrick.png", 59, 29},
+        {"HeartBrick.png", 59, 29},
+        // ball and paddle (normal and mega basket widths)
+        {"Ball.png", 20, 20},
+        {"Basket.png", 122, 19},
+        {"MegaBasket.png", 214, 19},
+        // falling power-ups
+        {"Heart.png", 30, 30},
+        {"MegaBasket.png", 30, 30},
+        {"Apple.png", 30, 30},
+        {"Blueberry.png", 30, 30},
+        // hud hearts
+        {"Heart.png", 25, 25}
+    };
+
+    // sprites are packed into rows no wider than this
+    private static final int ATLAS_WIDTH = 512;
+    private static final int PADDING = 1;
+
+    private static SpriteCache instance;
+
+    private BufferedImage atlas;
+    private HashMap<String, Sprite> sprites;
+
+    // decoded source images, only needed while packing
+    private HashMap<String, BufferedImage> sourceImages;
+
+    // the shared cache, built the first time anyone asks for a sprite
+    public static synchronized SpriteCache get() {
+        if (instance == null) {
+            instance = new SpriteCache();
+        }
+        return instance;
+    }
+
+    private SpriteCache() {
+        sprites = new HashMap<>();
+        sourceImages = new HashMap<>();
+        buildAtlas();
+        sourceImages = null;
+    }
+
+    // returns the sprite for a file drawn at the given size, or null if the file is missing
+    // (or there is no file, for things that are always drawn some other way)
+    public synchronized Sprite getSprite(String filename, int width, int height) {
+        if (filename == null) {
+            return null;
+        }
+        String key = key(filename, width, height);
+        if (sprites.containsKey(key)) {
+            return sprites.get(key);
+        }
+
+        // not in the manifest, give it its own image so it is still only decoded once
+        Sprite sprite = null;
+        BufferedImage source = loadImage(filename);
+        if (source != null) {
+            BufferedImage image = createImage(width, height);
+            drawScaled(image, source, 0, 0, width, height);
+            sprite = new Sprite(image, 0, 0, width, height);
+        }
+        sprites.put(key, sprite);
+        return sprite;
+    }
+
+    // a solid, usually see-through block of color; blitting one of these is much cheaper
+    // than a translucent fillRect, which makes scratch rasters on every call
+    public synchronized Sprite getShade(Color color, int width, int height) {
+        String key = "shade " + Integer.toHexString(color.getRGB()) + "@" + width + "x" + height;
+        Sprite sprite = sprites.get(key);
+        if (sprite == null) {
+            BufferedImage image = createImage(Math.max(1, width), Math.max(1, height));
+            Graphics2D g = image.createGraphics();
+            g.setComposite(AlphaComposite.Src);
+            g.setColor(color);
+            g.fillRect(0, 0, width, height);
+            g.dispose();
+            sprite = new Sprite(image, 0, 0, width, height);
+            sprites.put(key, sprite);
+        }
+        return sprite;
+    }
+
+    // a line of text drawn once into an image, its baseline getAscent(font) down from the top.
+    // java2d rebuilds its font info on every drawString after a font change, so text in a
+    // different font from the rest of the frame is much cheaper to blit than to draw
+    public synchronized Sprite getText(String text, Font font, Color color) {
+        String key = "text " + Integer.toHexString(color.getRGB()) + " " + font + " " + text;
+        Sprite sprite = sprites.get(key);
+        if (sprite == null) {
+            FontMetrics metrics = getMetrics(font);
+            int width = Math.max(1, metrics.stringWidth(text));
+            int height = Math.max(1, metrics.getAscent() + metrics.getDescent());
+            BufferedImage image = createImage(width, height);
+            Graphics2D g = image.createGraphics();
+            g.setFont(font);
+            g.setColor(color);
+            g.drawString(text, 0, metrics.getAscent());
+            g.dispose();
+            sprite = new Sprite(image, 0, 0, width, height);
+            sprites.put(key, sprite);
+        }
+        return sprite;
+    }
+
+    // where getText puts the baseline
+    public int getAscent(Font font) {
+        return getMetrics(font).getAscent();
+    }
+
+    private static FontMetrics getMetrics(Font font) {
+        Graphics2D g = createImage(1, 1).createGraphics();
+        FontMetrics metrics = g.getFontMetrics(font);
+        g.dispose();
+        return metrics;
+    }
+
+    private void buildAtlas() {
+        // sort the manifest tallest first so each shelf wastes as little space as possible
+        ArrayList<Object[]> entries = new ArrayList<>();
+        for (Object[] entry : MANIFEST) {
+            if (loadImage((String)entry[0]) != null) {
+                entries.add(entry);
+            } else {
+                sprites.put(key((String)entry[0], (Integer)entry[1], (Integer)entry[2]), null);
+            }
+        }
+        entries.sort((a, b) -> (Integer)b[2] - (Integer)a[2]);
+
+        // shelf packing, first pass only works out positions
+        int[][] positions = new int[entries.size()][];
+        int shelfX = 0;
+        int shelfY = 0;
+        int shelfHeight = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            int width = (Integer)entries.get(i)[1];
+            int height = (Integer)entries.get(i)[2];
+            if (shelfX + width > ATLAS_WIDTH) {
+                shelfY += shelfHeight + PADDING;
+                shelfX = 0;
+                shelfHeight = 0;
+            }
+            positions[i] = new int[] {shelfX, shelfY};
+            shelfX += width + PADDING;
+            shelfHeight = Math.max(shelfHeight, height);
+        }
+
+        atlas = createImage(ATLAS_WIDTH, Math.max(1, shelfY + shelfHeight));
+        for (int i = 0; i < entries.size(); i++) {
+            String filename = (String)entries.get(i)[0];
+            int width = (Integer)entries.get(i)[1];
+            int height = (Integer)entries.get(i)[2];
+            drawScaled(atlas, sourceImages.get(filename), positions[i][0], positions[i][1], width, height);
+            sprites.put(key(filename, width, height),
+                        new Sprite(atlas, positions[i][0], positions[i][1], width, height));
+        }
+    }
+
+    // reads an asset once, missing ones are reported by the archive the first time only
+    private BufferedImage loadImage(String filename) {
+        if (sourceImages != null && sourceImages.containsKey(filename)) {
+            return sourceImages.get(filename);
+        }
+
+        GameEvents.AssetLoad event = new GameEvents.AssetLoad();
+        event.begin();
+        BufferedImage image = null;
+        try {
+            InputStream in = AssetArchive.get().open(filename);
+            if (in != null) {
+                // decoded straight from the archive's mapping, the default stream would spool it to a temp file
+                image = ImageIO.read(new MemoryCacheImageInputStream(in));
+            }
+        } catch (Exception e) {
+            System.out.println("error loading image " + filename + ": " + e.getMessage());
+        }
+
+        if (sourceImages != null) {
+            sourceImages.put(filename, image);
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.file = filename;
+            event.kind = "image";
+            event.found = image != null;
+            event.commit();
+        }
+        return image;
+    }
+
+    // loads a whole picture for a screen (gifs keep their animation), timed as an asset load.
+    // returns null when the asset is missing
+    public static ImageIcon loadIcon(String filename) {
+        GameEvents.AssetLoad event = new GameEvents.AssetLoad();
+        event.begin();
+        // the toolkit only decodes from an array, so this one asset is copied out of the archive
+        byte[] bytes = AssetArchive.get().readBytes(filename);
+        ImageIcon icon = bytes != null ? new ImageIcon(Toolkit.getDefaultToolkit().createImage(bytes)) : null;
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.file = filename;
+            event.kind = "icon";
+            event.found = icon != null;
+            event.commit();
+        }
+        return icon;
+    }
+
+    // an image in the screen's native pixel layout so drawImage can take the fast path
+    static BufferedImage createImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+            .getDefaultScreenDevice().getDefaultConfiguration();
+        return config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+
+    private static void drawScaled(BufferedImage target, BufferedImage source, int x, int y, int width, int height) {
+        Graphics2D g = target.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(source, x, y, width, height, null);
+        g.dispose();
+    }
+
+    private static String key(String filename, int width, int height) {
+        return filename + "@" + width + "x" + height;
+    }
+
+    // a region of the atlas, cheap to hold on to and draw
+    public static class Sprite {
+        private final Image image;
+        private final int sx, sy, width, height;
+
+        Sprite(Image image, int sx, int sy, int width, int height) {
+            this.image = image;
+            this.sx = sx;
+            this.sy = sy;
+            this.width = width;
+            this.height = height;
+        }
+
+        public void draw(Graphics g, int x, int y) {
+            g.drawImage(image, x, y, x + width, y + height, sx, sy, sx + width, sy + height, null);
+        }
+
+        // only scales when asked for a different size than the sprite was packed at
+        public void draw(Graphics g, int x, int y, int drawWidth, int drawHeight) {
+            g.drawImage(image, x, y, x + drawWidth, y + drawHeight, sx, sy, sx + width, sy + height, null);
+        }
+
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+    }
+}
@@ -0,0 +1,126 @@
+public class SweptCollision {
+    // result of a sweep, reused between calls
+    public static class Hit {
+        public double t;        // fraction of the move where contact happens, 0 to 1
+        public double normalX;  // surface normal at the contact point
+        public double normalY;
+        public int tested;      // bricks BrickGrid.sweep checked to find it
+    }
+
+    private SweptCollision() {}
+
+    // moves a circle from (x, y) by (dx, dy) against a box and reports the first contact, if any
+    public static boolean circleVsBox(double x, double y, double dx, double dy, double radius,
+                                      double left, double top, double right, double bottom, Hit hit) {
+        // already overlapping: push out along the shallowest side
+        if (x + radius > left && x - radius < right && y + radius > top && y - radius < bottom) {
+            double closestX = Math.max(left, Math.min(x, right));
+            double closestY = Math.max(top, Math.min(y, bottom));
+            double ox = x - closestX;
+            double oy = y - closestY;
+            if ((ox != 0 || oy != 0) && ox * ox + oy * oy >= radius * radius) {
+                // only the rounded corner region overlaps the square bounds, not the circle itself
+                return sweepCorner(x, y, dx, dy, radius, closestX, closestY, hit);
+            }
+            hit.t = 0;
+            double pushLeft = x + radius - left;
+            double pushRight = right - (x - radius);
+            double pushUp = y + radius - top;
+            double pushDown = bottom - (y - radius);
+            double minX = Math.min(pushLeft, pushRight);
+            double minY = Math.min(pushUp, pushDown);
+            if (minX < minY) {
+                hit.normalX = pushLeft < pushRight ? -1 : 1;
+                hit.normalY = 0;
+            } else {
+                hit.normalX = 0;
+                hit.normalY = pushUp < pushDown ? -1 : 1;
+            }
+            // moving away already, nothing to resolve
+            return hit.normalX * dx + hit.normalY * dy < 0;
+        }
+
+        // ray against the box grown by the radius (slab test)
+        double entryX, exitX, entryY, exitY;
+        if (dx == 0) {
+            if (x <= left - radius || x >= right + radius) {
+                return false;
+            }
+            entryX = Double.NEGATIVE_INFINITY;
+            exitX = Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (left - radius - x) / dx;
+            double t2 = (right + radius - x) / dx;
+            entryX = Math.min(t1, t2);
+            exitX = Math.max(t1, t2);
+        }
+        if (dy == 0) {
+            if (y <= top - radius || y >= bottom + radius) {
+                return false;
+            }
+            entryY = Double.NEGATIVE_INFINITY;
+            exitY = Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (top - radius - y) / dy;
+            double t2 = (bottom + radius - y) / dy;
+            entryY = Math.min(t1, t2);
+            exitY = Math.max(t1, t2);
+        }
+
+        double entry = Math.max(entryX, entryY);
+        double exit = Math.min(exitX, exitY);
+        if (entry > exit || entry < 0 || entry > 1) {
+            return false;
+        }
+
+        // where the center is at contact; outside the box on both axes means we hit a rounded corner
+        double cx = x + dx * entry;
+        double cy = y + dy * entry;
+        boolean outsideX = cx < left || cx > right;
+        boolean outsideY = cy < top || cy > bottom;
+        if (outsideX && outsideY) {
+            double cornerX = cx < left ? left : right;
+            double cornerY = cy < top ? top : bottom;
+            return sweepCorner(x, y, dx, dy, radius, cornerX, cornerY, hit);
+        }
+
+        hit.t = entry;
+        if (entryX > entryY) {
+            hit.normalX = dx > 0 ? -1 : 1;
+            hit.normalY = 0;
+        } else {
+            hit.normalX = 0;
+            hit.normalY = dy > 0 ? -1 : 1;
+        }
+        return true;
+    }
+
+    // moving circle against a single corner point
+    private static boolean sweepCorner(double x, double y, double dx, double dy, double radius,
+                                       double cornerX, double cornerY, Hit hit) {
+        double fx = x - cornerX;
+        double fy = y - cornerY;
+        double a = dx * dx + dy * dy;
+        double b = 2 * (fx * dx + fy * dy);
+        double c = fx * fx + fy * fy - radius * radius;
+        if (a == 0) {
+            return false;
+        }
+        double discriminant = b * b - 4 * a * c;
+        if (discriminant < 0) {
+            return false;
+        }
+        double t = (-b - Math.sqrt(discriminant)) / (2 * a);
+        if (t < 0 || t > 1) {
+            return false;
+        }
+
+        hit.t = t;
+        double nx = x + dx * t - cornerX;
+        double ny = y + dy * t - cornerY;
+        double length = Math.sqrt(nx * nx + ny * ny);
+        hit.normalX = nx / length;
+        hit.normalY = ny / length;
+        return true;
+    }
+}
@@ -0,0 +1,158 @@
+import javax.swing.*;
+import javax.swing.Timer;
+import java.awt.*;
+import java.awt.event.*;
+
+public class TomNookTalkingScreen extends GameScreen {
+    public static final String[] PICTURES = { "TomNookTalkingScreen.gif" };
+    
+    // one animated picture and one line of sound per page of dialogue
+    public static final String[] DIALOGUE_PICTURES = {
+        "Dialogue01.gif", "Dialogue02.gif", "Dialogue03.gif", "Dialogue04.gif",
+        "Dialogue05.gif", "Dialogue06.gif", "Dialogue07.gif", "Dialogue08.gif",
+        "Dialogue09.gif", "Dialogue010.gif", "Dialogue011.gif"
+    };
+    public static final String[] DIALOGUE_SOUNDS = {
+        "Dialogue001.wav", "Dialogue002.wav", "Dialogue003.wav", "Dialogue004.wav",
+        "Dialogue005.wav", "Dialogue006.wav", "Dialogue007.wav", "Dialogue008.wav",
+        "Dialogue009.wav", "Dialogue0010.wav", "Dialogue0011.wav"
+    };
+    
+    private LayerCache background;
+    private IntroPreloader pages;
+    private int currentDialogueIndex = 0;
+    private AnimatedPicture currentPage;
+    private SoundStream currentDialogueSound;
+    
+    // moves the page's animation along, each tick is set for when the next frame is due
+    private Timer frameTimer;
+    private long pageStartNanos;
+    
+    public TomNookTalkingScreen(BrickBreakerGame game) {
+        super(game);
+        setLayout(null);
+    
+        background = addLayer(LayerCache.forPicture(addPicture(PICTURES[0]), null));
+    
+        // the first page is decoded while the player is still knocking
+        pages = new IntroPreloader(game.getAssets(), game.getSoundBank(), DIALOGUE_PICTURES, DIALOGUE_SOUNDS);
+        pages.prefetch(0);
+    
+        frameTimer = new Timer(0, e -> nextFrame());
+        frameTimer.setRepeats(false);
+    
+        // click anywhere to go to the next line
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                game.playClickSound();
+                nextDialogue();
+            }
+        });
+    }
+    
+    @Override
+    public void onActivate() {
+        currentDialogueIndex = 0;
+        showPage(currentDialogueIndex);
+    }
+    
+    private void nextDialogue() {
+        currentDialogueIndex++;
+    
+        // after the last line move on to the instructions
+        if (currentDialogueIndex >= DIALOGUE_PICTURES.length) {
+            System.out.println(pages.getReport());
+            game.showScreen("howToPlay");
+            return;
+        }
+    
+        showPage(currentDialogueIndex);
+    }
+    
+    // swaps to a page and its line, both were made ready while the last page was up
+    private void showPage(int index) {
+        stopPage();
+        currentPage = pages.show(index);
+        currentDialogueSound = pages.takeSound(index);
+        game.getSoundBank().playStream(currentDialogueSound);
+    
+        pageStartNanos = System.nanoTime();
+        if (currentPage != null) {
+            currentPage.restart();
+            scheduleFrame(currentPage.update(0));
+        }
+        repaint();
+    }
+    
+    private void nextFrame() {
+        if (currentPage == null) {
+            return;
+        }
+        int next = currentPage.update((System.nanoTime() - pageStartNanos) / 1_000_000L);
+    
+        // only the part of the page that changed, scaled to the screen
+        Rectangle changed = currentPage.getChanged();
+        if (!changed.isEmpty()) {
+            double sx = (double)getWidth() / currentPage.getWidth();
+            double sy = (double)getHeight() / currentPage.getHeight();
+            repaint((int)(changed.x * sx) - 1, (int)(changed.y * sy) - 1,
+                    (int)Math.ceil(changed.width * sx) + 2, (int)Math.ceil(changed.height * sy) + 2);
+        }
+        scheduleFrame(next);
+    }
+    
+    private void scheduleFrame(int delayMillis) {
+        if (delayMillis < 0) {
+            return;
+        }
+        frameTimer.setInitialDelay(delayMillis);
+        frameTimer.restart();
+    }
+    
+    // stops the page's animation and cancels its line, which stops on the mixer's next block
+    private void stopPage() {
+        frameTimer.stop();
+        if (currentPage != null) {
+            currentPage.stop();
+            currentPage = null;
+        }
+        if (currentDialogueSound != null) {
+            currentDialogueSound.cancel();
+            currentDialogueSound = null;
+        }
+    }
+    
+    public void cleanup() {
+        stopPage();
+        pages.release();
+    }
+    
+    @Override
+    public void onDeactivate() {
+        cleanup();
+    }
+    
+    @Override
+    public void releaseAssets() {
+        super.releaseAssets();
+        pages.release();
+    }
+    
+    @Override
+    public long getAssetBytes() {
+        return super.getAssetBytes() + pages.getBytes();
+    }
+    
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        background.draw(g, this);
+    
+        if (currentPage != null) {
+            ((Graphics2D)g).setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                                             RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            currentPage.draw(g, 0, 0, getWidth(), getHeight());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.SplittableRandom;
+import java.util.function.IntSupplier;
+
+// the work each jmh benchmark measures, set up and ready to run. the game is all in the default
+// package, which jmh benchmarks can't be in and named packages can't see, so this class stays in
+// the default package and hands each benchmark a plain IntSupplier (looked up once in its setup,
+// see Workloads). every call does one operation and returns something for the blackhole
+public class BenchmarkWorkloads {
+    private BenchmarkWorkloads() {}
+
+    // one tick on a rows x cols board with about powerUpLoad power-ups falling
+    public static IntSupplier tick(int rows, int cols, int powerUpLoad) {
+        GameSimulation simulation = new GameSimulation(600, 600, rows, cols);
+        simulation.reset(1234);
+        AutopilotController autopilot = new AutopilotController(false, null);
+        SplittableRandom random = new SplittableRandom(99);
+
+        return () -> {
+            if (simulation.isGameOver()) {
+                simulation.reset(1234);
+            }
+            // keep the power-up count steady, a new one for each one caught or missed
+            PowerUpPool powerUps = simulation.getPowerUps();
+            while (powerUps.getCount() < powerUpLoad) {
+                powerUps.add(random.nextInt(simulation.getWidth() - PowerUpPool.SIZE),
+                             random.nextInt(simulation.getPaddle().getY()), PowerUpKind.APPLE);
+            }
+            simulation.tick(autopilot);
+            return simulation.getScore();
+        };
+    }
+
+    // one tick on the default board with ballLoad balls kept in play
+    public static IntSupplier balls(int ballLoad) {
+        GameSimulation simulation = new GameSimulation(600, 600);
+        simulation.reset(1234);
+        AutopilotController autopilot = new AutopilotController(false, null);
+
+        return () -> {
+            if (simulation.isGameOver()) {
+                simulation.reset(1234);
+            }
+            // new balls for the ones that fell out, once the first one is on its way
+            BallSet balls = simulation.getBalls();
+            if (simulation.isGameStarted() && balls.getCount() < ballLoad) {
+                simulation.addBalls(ballLoad - balls.getCount());
+            }
+            simulation.tick(autopilot);
+            return balls.getCount();
+        };
+    }
+
+    // BrickGrid.sweep for a few thousand ball moves at game speed scattered over a full board
+    public static IntSupplier sweep(int rows, int cols) {
+        double pitchX = 74.7;
+        double pitchY = 39.9;
+        BrickGrid bricks = new BrickGrid(rows, cols, 59, 29);
+        bricks.clear(40, 100, pitchX, pitchY);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                bricks.set(row, col, 40 + (int)(col * pitchX), 100 + (int)(row * pitchY), FruitKind.APPLE);
+            }
+        }
+
+        int count = 4096;
+        double[] x = new double[count];
+        double[] y = new double[count];
+        double[] dx = new double[count];
+        double[] dy = new double[count];
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < count; i++) {
+            x[i] = 40 + random.nextDouble() * cols * pitchX;
+            y[i] = 100 + random.nextDouble() * rows * pitchY;
+            double angle = random.nextDouble() * Math.PI * 2;
+            dx[i] = Math.cos(angle) * 6;
+            dy[i] = Math.sin(angle) * 6;
+        }
+        SweptCollision.Hit hit = new SweptCollision.Hit();
+        int[] next = new int[1];
+
+        return () -> {
+            int n = next[0]++ & (count - 1);
+            return bricks.sweep(x[n], y[n], dx[n], dy[n], 10, -1, hit);
+        };
+    }
+
+    // a full frame of GamePlayScreen drawn into an offscreen image, a still one (everything from
+    // the cached layers) or after a tick
+    public static IntSupplier render(boolean tick) {
+        BrickBreakerGame game = new BrickBreakerGame();
+        GamePlayScreen screen = (GamePlayScreen)game.getScreen("game");
+        screen.setSize(600, 600);
+        screen.resetGame();
+        GameSimulation simulation = screen.getSimulation();
+        AutopilotController autopilot = new AutopilotController(true, null);
+        for (int i = 0; i < 600; i++) {
+            simulation.tick(autopilot);
+        }
+
+        BufferedImage frame = new BufferedImage(600, 600, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = frame.createGraphics();
+        return () -> {
+            if (tick) {
+                if (simulation.isGameOver()) {
+                    screen.resetGame();
+                }
+                simulation.tick(autopilot);
+            }
+            screen.renderFrame(g, 0.5);
+            return frame.getRGB(300, 300);
+        };
+    }
+
+    // triggering a sound effect and mixing the block it starts in, on an offline mixer so it
+    // runs without a sound card (the mixing is the same)
+    public static IntSupplier sound() {
+        AudioMixer mixer = new AudioMixer(true);
+        SoundBank sounds = new SoundBank(mixer);
+        sounds.load("BrickSound.wav");
+        return () -> {
+            sounds.play("BrickSound.wav");
+            return mixer.mixOneBlock();
+        };
+    }
+
+    // the longest a triggered sound can wait to be heard: one queued block plus the line buffer
+    public static double maxTriggerLatencyMillis() {
+        return AudioMixer.getMaxTriggerLatencyMillis();
+    }
+}
@@ -0,0 +1,29 @@
+package brickbreaker.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import org.openjdk.jmh.annotations.*;
+
+// one tick with more and more balls in play, up to a full ball set
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class BallsBenchmark {
+    @Param({"1", "16", "128", "512"})
+    public int balls;
+
+    private IntSupplier tick;
+
+    @Setup
+    public void setUp() {
+        tick = Workloads.get("balls", balls);
+    }
+
+    @Benchmark
+    public int tick() {
+        return tick.getAsInt();
+    }
+}
@@ -0,0 +1,33 @@
+package brickbreaker.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import org.openjdk.jmh.annotations.*;
+
+// a whole GamePlayScreen frame drawn headless into an offscreen image, still and after a tick
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class RenderBenchmark {
+    private IntSupplier frame;
+    private IntSupplier tickAndFrame;
+
+    @Setup
+    public void setUp() {
+        frame = Workloads.get("render", false);
+        tickAndFrame = Workloads.get("render", true);
+    }
+
+    @Benchmark
+    public int frame() {
+        return frame.getAsInt();
+    }
+
+    @Benchmark
+    public int tickAndFrame() {
+        return tickAndFrame.getAsInt();
+    }
+}
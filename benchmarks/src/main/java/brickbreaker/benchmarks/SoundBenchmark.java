@@ -0,0 +1,33 @@
+package brickbreaker.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import org.openjdk.jmh.annotations.*;
+
+// triggering a sound effect and mixing the block it starts in. what it costs the caller is
+// measured here; how long it can take to be heard is fixed by the buffers and printed once
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class SoundBenchmark {
+    private IntSupplier trigger;
+
+    @Setup
+    public void setUp() {
+        trigger = Workloads.get("sound");
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println(String.format("a triggered sound reaches the speaker within %.1f ms",
+                                         Workloads.getDouble("maxTriggerLatencyMillis")));
+    }
+
+    @Benchmark
+    public int triggerAndMix() {
+        return trigger.getAsInt();
+    }
+}
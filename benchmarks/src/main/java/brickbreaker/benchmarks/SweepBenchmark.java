@@ -0,0 +1,30 @@
+package brickbreaker.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import org.openjdk.jmh.annotations.*;
+
+// the brick collision lookup on its own, which should cost about the same on any board size
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class SweepBenchmark {
+    @Param({"3x7", "100x200"})
+    public String board;
+
+    private IntSupplier sweep;
+
+    @Setup
+    public void setUp() {
+        String[] size = board.split("x");
+        sweep = Workloads.get("sweep", Integer.parseInt(size[0]), Integer.parseInt(size[1]));
+    }
+
+    @Benchmark
+    public int sweep() {
+        return sweep.getAsInt();
+    }
+}
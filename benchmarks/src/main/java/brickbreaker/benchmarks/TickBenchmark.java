@@ -0,0 +1,35 @@
+package brickbreaker.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import org.openjdk.jmh.annotations.*;
+
+// one simulation tick on the default board, a medium one and a 100x200 board that scrolls,
+// with no power-ups falling, a busy screen of them and a full pool
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class TickBenchmark {
+    // rows x cols
+    @Param({"3x7", "20x40", "100x200"})
+    public String board;
+
+    @Param({"0", "50", "256"})
+    public int powerUps;
+
+    private IntSupplier tick;
+
+    @Setup
+    public void setUp() {
+        String[] size = board.split("x");
+        tick = Workloads.get("tick", Integer.parseInt(size[0]), Integer.parseInt(size[1]), powerUps);
+    }
+
+    @Benchmark
+    public int tick() {
+        return tick.getAsInt();
+    }
+}
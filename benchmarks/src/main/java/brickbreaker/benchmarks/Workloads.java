@@ -0,0 +1,32 @@
+package brickbreaker.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.function.IntSupplier;
+
+// looks up the game's side of a benchmark in BenchmarkWorkloads, which is in the default
+// package with the game and so can only be reached by name. this only runs in setup, the
+// measured calls go straight to the IntSupplier it returns
+final class Workloads {
+    private Workloads() {}
+
+    static IntSupplier get(String name, Object... args) {
+        try {
+            Class<?>[] types = new Class<?>[args.length];
+            for (int i = 0; i < args.length; i++) {
+                types[i] = args[i] instanceof Boolean ? boolean.class : int.class;
+            }
+            Method method = Class.forName("BenchmarkWorkloads").getMethod(name, types);
+            return (IntSupplier)method.invoke(null, args);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("can't set up workload " + name, e);
+        }
+    }
+
+    static double getDouble(String name) {
+        try {
+            return (Double)Class.forName("BenchmarkWorkloads").getMethod(name).invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("can't read " + name, e);
+        }
+    }
+}